@@ -0,0 +1,56 @@
+package com.bank.onlinebank.component;
+
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.dto.ClientVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Построение ETag для ответов API клиентов.
+ * <p>
+ * Ответ с одним клиентом получает сильный ETag из ID и версии оптимистической блокировки.
+ * Списки и статистика получают слабый ETag из эпохи записи {@link ClientWriteEpoch}
+ * и параметров запроса. Эпоха своя у каждого узла и начинается с нуля при старте, поэтому
+ * в слабый ETag входит идентификатор экземпляра: ETag другого узла или прошлого запуска
+ * никогда не совпадет и не даст ложного 304.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientETags {
+
+    private final String instanceId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final ClientWriteEpoch writeEpoch;
+
+    /**
+     * Сильный ETag ответа с одним клиентом
+     */
+    public String strong(ClientDTO client) {
+        return strong(client.getId(), client.getVersion());
+    }
+
+    /**
+     * Сильный ETag по проекции версии клиента
+     */
+    public String strong(ClientVersion version) {
+        return strong(version.id(), version.version());
+    }
+
+    /**
+     * Слабый ETag списка или статистики для текущей эпохи записи
+     *
+     * @param query имя ресурса и параметры запроса, влияющие на ответ
+     */
+    public String weak(Object... query) {
+        return "W/\"" + instanceId + "-" + writeEpoch.current() + "-"
+                + Integer.toHexString(Arrays.deepHashCode(query)) + "\"";
+    }
+
+    private static String strong(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.onlinebank.component;
+
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Глобальная эпоха записи клиентов.
+ * <p>
+ * Увеличивается после коммита каждого создания, изменения или удаления клиента.
+ * Кэши результатов включают эпоху в ключ, поэтому любая запись делает все ранее
+ * закэшированные результаты недостижимыми без обхода и очистки кэша.
+ * </p>
+ * <p>
+ * Слушатели выполняются первыми, чтобы остальные подписчики и построения индексов,
+ * сверяющие эпоху, уже видели ее новое значение.
+ * </p>
+ */
+@Component
+public class ClientWriteEpoch {
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Текущая эпоха
+     */
+    public long current() {
+        return epoch.get();
+    }
+
+    /**
+     * Увеличение эпохи после коммита изменения клиента
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * Увеличение эпохи, если изменения других узлов могли быть пропущены
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        epoch.incrementAndGet();
+    }
+}
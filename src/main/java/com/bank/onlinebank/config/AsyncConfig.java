@@ -0,0 +1,15 @@
+package com.bank.onlinebank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Включение асинхронных методов ({@code @Async}).
+ *
+ * <p>Методы выполняются в пуле задач Spring Boot ({@code spring.task.execution.*}). Используется
+ * для долгой обработки событий, которая не должна задерживать поток, опубликовавший событие.</p>
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -128,6 +128,12 @@ public class DatabaseConfig {
                 log.info("Схема БД успешно создана");
             }
 
+            // Доводим существующую схему до текущей версии (идемпотентные ALTER / CREATE IF NOT EXISTS)
+            ResourceDatabasePopulator upgrade = new ResourceDatabasePopulator();
+            upgrade.addScript(new ClassPathResource("schema-upgrade.sql"));
+            upgrade.setSeparator(";");
+            upgrade.execute(realDataSource);
+
         } catch (Exception e) {
             log.error("Ошибка при инициализации схемы: {}", e.getMessage());
             isSchemaInitialized.set(false); // Попробуем еще раз позже
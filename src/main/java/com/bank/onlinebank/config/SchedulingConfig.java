@@ -0,0 +1,16 @@
+package com.bank.onlinebank.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включение периодических задач ({@code @Scheduled}).
+ *
+ * <p>Задачи выполняются в пуле планировщика Spring Boot ({@code spring.task.scheduling.*}),
+ * отдельно от потоков обработки запросов. Размер пула задан в application.properties: при одном
+ * потоке многосекундные перестроения индексов задерживали бы частые обновления и сверки.</p>
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,37 @@
 package com.bank.onlinebank.controller;
 
+import com.bank.onlinebank.component.ClientETags;
+import com.bank.onlinebank.dto.ClientAnalyticsDTO;
+import com.bank.onlinebank.dto.ClientBatchRequestDTO;
+import com.bank.onlinebank.dto.ClientBatchResponseDTO;
+import com.bank.onlinebank.dto.ClientCubeDTO;
 import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.dto.ClientGrowthDTO;
+import com.bank.onlinebank.dto.CursorPageDTO;
+import com.bank.onlinebank.dto.PageEnvelope;
+import com.bank.onlinebank.dto.ClientVersion;
+import com.bank.onlinebank.dto.SlicePageDTO;
+import com.bank.onlinebank.enums.ClientKeyType;
+import com.bank.onlinebank.enums.CubeDimension;
 import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.GrowthGroupBy;
 import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.Region;
+import com.bank.onlinebank.enums.TimeGranularity;
+import com.bank.onlinebank.enums.TotalCountMode;
+import com.bank.onlinebank.service.ClientColumnarService;
+import com.bank.onlinebank.service.ClientCubeService;
+import com.bank.onlinebank.service.ClientGrowthService;
+import com.bank.onlinebank.service.ClientHotKeyTracker;
 import com.bank.onlinebank.service.ClientService;
+import com.bank.onlinebank.service.ClientStreamingService;
+import com.bank.onlinebank.service.ClientSuggestService;
 import com.bank.onlinebank.service.DatabaseHealthService;
 import com.bank.onlinebank.service.HealthCheckService;
+import com.bank.onlinebank.util.ClientFieldSelection;
+import com.bank.onlinebank.util.PrefixIndex;
 import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,13 +39,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST контроллер для управления клиентами банка
@@ -32,8 +64,15 @@ import java.util.Map;
 public class ClientController {
 
     private final ClientService clientService;
+    private final ClientSuggestService clientSuggestService;
+    private final ClientStreamingService clientStreamingService;
+    private final ClientHotKeyTracker hotKeyTracker;
+    private final ClientGrowthService clientGrowthService;
+    private final ClientCubeService clientCubeService;
+    private final ClientColumnarService clientColumnarService;
     private final HealthCheckService healthCheckService;
     private final DatabaseHealthService dbHealthService;
+    private final ClientETags eTags;
 
     /**
      * Получить список всех клиентов с пагинацией
@@ -44,11 +83,17 @@ public class ClientController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "lastName") String sort,
-            @RequestParam(defaultValue = "ASC") String direction) {
+            @RequestParam(defaultValue = "ASC") String direction,
+            WebRequest request) {
 
         long startTime = System.currentTimeMillis();
 
         try {
+            String eTag = eTags.weak("list", page, size, sort, direction);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
             Sort.Direction sortDirection = Sort.Direction.fromString(direction);
             Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
 
@@ -57,6 +102,141 @@ public class ClientController {
             log.info("Получен список клиентов: страница {}, размер {}, всего элементов {}",
                     page, size, clients.getTotalElements());
 
+            return ResponseEntity.ok().eTag(eTag).body(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Получить список клиентов с выбором способа подсчета общего количества (параметр total)
+     */
+    @GetMapping(params = {"total", "!after", "!fields"})
+    @Timed(value = "api.clients.list.slice", description = "Get all clients with optional total count")
+    public ResponseEntity<SlicePageDTO<ClientDTO>> getAllClientsSlice(
+            @RequestParam TotalCountMode total,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "lastName") String sort,
+            @RequestParam(defaultValue = "ASC") String direction,
+            WebRequest request) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            String eTag = eTags.weak("list", total, page, size, sort, direction);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+            Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+
+            SlicePageDTO<ClientDTO> clients = clientService.searchClients(null, null, null, pageable, total);
+
+            log.info("Получен список клиентов ({}): страница {}, размер {}, всего элементов {}",
+                    total, page, size, clients.getTotalElements());
+
+            return ResponseEntity.ok().eTag(eTag).body(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Получить список клиентов только с указанными полями (параметр fields) в компактной обертке
+     */
+    @GetMapping(params = {"fields", "!after"})
+    @Timed(value = "api.clients.list.fields", description = "Get all clients with selected fields")
+    public ResponseEntity<PageEnvelope<Map<String, Object>>> getAllClientsFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "NONE") TotalCountMode total,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "lastName") String sort,
+            @RequestParam(defaultValue = "ASC") String direction,
+            WebRequest request) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<String> selectedFields = ClientFieldSelection.parse(fields);
+            String eTag = eTags.weak("list", selectedFields, total, page, size, sort, direction);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+            Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+
+            PageEnvelope<Map<String, Object>> clients = clientService.searchClientFields(
+                    null, null, null, selectedFields, pageable, total);
+
+            log.info("Получен список клиентов (поля {}): страница {}, размер {}",
+                    selectedFields, page, size);
+
+            return ResponseEntity.ok().eTag(eTag).body(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Потоковая выдача списка клиентов (stream=true): строки пишутся в ответ по мере чтения из БД
+     */
+    @GetMapping(params = {"stream=true", "!after", "!fields", "!total"})
+    @Timed(value = "api.clients.list.stream", description = "Stream all clients")
+    public void streamAllClients(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "lastName") String sort,
+            @RequestParam(defaultValue = "ASC") String direction,
+            HttpServletResponse response) throws IOException {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+            long written = clientStreamingService.writeClients(page, size, sort, sortDirection,
+                    response.getOutputStream());
+
+            log.info("Выдан поток клиентов: страница {}, размер {}, выведено {}", page, size, written);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Получить список клиентов с keyset-пагинацией (параметр after, пустой для первой страницы)
+     */
+    @GetMapping(params = "after")
+    @Timed(value = "api.clients.list.keyset", description = "Get all clients with keyset pagination")
+    public ResponseEntity<CursorPageDTO<ClientDTO>> getAllClientsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            // Без явной сортировки она берется из курсора (или lastName ASC для первой страницы)
+            Sort.Direction sortDirection = direction == null ? null : Sort.Direction.fromString(direction);
+
+            CursorPageDTO<ClientDTO> clients = clientService.searchClientsAfter(
+                    null, null, null, sort, sortDirection, after, size);
+
+            log.info("Получен список клиентов (keyset): размер {}, есть следующая страница: {}",
+                    clients.getNumberOfElements(), clients.isHasNext());
+
             return ResponseEntity.ok(clients);
 
         } finally {
@@ -74,11 +254,17 @@ public class ClientController {
             @RequestParam(required = false) Currency currency,
             @RequestParam(required = false) Nationality nationality,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
 
         long startTime = System.currentTimeMillis();
 
         try {
+            String eTag = eTags.weak("search", query, currency, nationality, page, size);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
             Pageable pageable = PageRequest.of(page, size, Sort.by("lastName"));
 
             Page<ClientDTO> clients = clientService.searchClients(
@@ -87,6 +273,110 @@ public class ClientController {
             log.info("Поиск клиентов: query='{}', currency={}, nationality={}, найдено {}",
                     query, currency, nationality, clients.getTotalElements());
 
+            return ResponseEntity.ok().eTag(eTag).body(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/search", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Поиск клиентов с выбором способа подсчета общего количества (параметр total)
+     */
+    @GetMapping(value = "/search", params = {"total", "!after", "!fields"})
+    @Timed(value = "api.clients.search.slice", description = "Search clients with optional total count")
+    public ResponseEntity<SlicePageDTO<ClientDTO>> searchClientsSlice(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) Nationality nationality,
+            @RequestParam TotalCountMode total,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            String eTag = eTags.weak("search", query, currency, nationality, total, page, size);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            Pageable pageable = PageRequest.of(page, size, Sort.by("lastName"));
+
+            SlicePageDTO<ClientDTO> clients = clientService.searchClients(
+                    query, currency, nationality, pageable, total);
+
+            log.info("Поиск клиентов ({}): query='{}', currency={}, nationality={}, всего {}",
+                    total, query, currency, nationality, clients.getTotalElements());
+
+            return ResponseEntity.ok().eTag(eTag).body(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/search", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Поиск клиентов только с указанными полями (параметр fields) в компактной обертке
+     */
+    @GetMapping(value = "/search", params = {"fields", "!after"})
+    @Timed(value = "api.clients.search.fields", description = "Search clients with selected fields")
+    public ResponseEntity<PageEnvelope<Map<String, Object>>> searchClientsFields(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) Nationality nationality,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "NONE") TotalCountMode total,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<String> selectedFields = ClientFieldSelection.parse(fields);
+            String eTag = eTags.weak("search", query, currency, nationality, selectedFields, total, page, size);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            Pageable pageable = PageRequest.of(page, size, Sort.by("lastName"));
+
+            PageEnvelope<Map<String, Object>> clients = clientService.searchClientFields(
+                    query, currency, nationality, selectedFields, pageable, total);
+
+            log.info("Поиск клиентов (поля {}): query='{}', currency={}, nationality={}, найдено {}",
+                    selectedFields, query, currency, nationality, clients.getItems().size());
+
+            return ResponseEntity.ok().eTag(eTag).body(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/search", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Поиск клиентов с фильтрами и keyset-пагинацией (параметр after, пустой для первой страницы)
+     */
+    @GetMapping(value = "/search", params = "after")
+    @Timed(value = "api.clients.search.keyset", description = "Search clients with keyset pagination")
+    public ResponseEntity<CursorPageDTO<ClientDTO>> searchClientsAfter(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) Nationality nationality,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            CursorPageDTO<ClientDTO> clients = clientService.searchClientsAfter(
+                    query, currency, nationality, null, null, after, size);
+
+            log.info("Поиск клиентов (keyset): query='{}', currency={}, nationality={}, на странице {}",
+                    query, currency, nationality, clients.getNumberOfElements());
+
             return ResponseEntity.ok(clients);
 
         } finally {
@@ -94,17 +384,119 @@ public class ClientController {
         }
     }
 
+    /**
+     * Поиск клиентов по последним цифрам номера счета или телефона
+     */
+    @GetMapping("/search/digits")
+    @Timed(value = "api.clients.search.digits", description = "Search clients by account or phone digits")
+    public ResponseEntity<List<ClientDTO>> searchClientsByDigits(
+            @RequestParam String digits,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<ClientDTO> clients = clientService.searchByDigits(digits, limit);
+
+            log.info("Поиск клиентов по цифрам: digits='{}', найдено {}", digits, clients.size());
+
+            return ResponseEntity.ok(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/search/digits", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Нечеткий поиск клиентов с допуском опечаток (индекс в памяти)
+     */
+    @GetMapping("/search/fuzzy")
+    @Timed(value = "api.clients.search.fuzzy", description = "Typo-tolerant client search")
+    public ResponseEntity<List<ClientDTO>> fuzzySearchClients(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer maxEdits,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<ClientDTO> clients = clientService.fuzzySearch(query, maxEdits, limit);
+
+            log.info("Нечеткий поиск клиентов: query='{}', найдено {}", query, clients.size());
+
+            return ResponseEntity.ok(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/search/fuzzy", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Поиск клиентов с созвучной фамилией
+     */
+    @GetMapping("/search/phonetic")
+    @Timed(value = "api.clients.search.phonetic", description = "Search clients by sound-alike last name")
+    public ResponseEntity<Page<ClientDTO>> searchClientsByPhoneticLastName(
+            @RequestParam String lastName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("lastName", "id"));
+
+            Page<ClientDTO> clients = clientService.searchByPhoneticLastName(lastName, pageable);
+
+            log.info("Фонетический поиск клиентов: lastName='{}', найдено {}",
+                    lastName, clients.getTotalElements());
+
+            return ResponseEntity.ok(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/search/phonetic", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Подсказки автодополнения для строки поиска (из индекса в памяти, без обращения к БД)
+     */
+    @GetMapping("/suggest")
+    @Timed(value = "api.clients.suggest", description = "Suggest client names")
+    public ResponseEntity<List<PrefixIndex.Suggestion>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            return ResponseEntity.ok(clientSuggestService.suggest(query, limit));
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/suggest", System.currentTimeMillis() - startTime);
+        }
+    }
+
     /**
      * Получить клиента по ID
      */
     @GetMapping("/{id}")
     @Timed(value = "api.clients.get", description = "Get client by ID")
-    public ResponseEntity<ClientDTO> getClient(@PathVariable Long id) {
+    public ResponseEntity<ClientDTO> getClient(@PathVariable Long id, WebRequest request) {
         long startTime = System.currentTimeMillis();
+        hotKeyTracker.record(ClientKeyType.ID, id);
 
         try {
+            // Условный запрос проверяется по версии, не собирая DTO
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<ClientVersion> version = clientService.getClientVersion(id);
+                if (version.isPresent() && request.checkNotModified(eTags.strong(version.get()))) {
+                    return null;
+                }
+            }
+
             ClientDTO client = clientService.getClientById(id);
-            return ResponseEntity.ok(client);
+            return ResponseEntity.ok().eTag(eTags.strong(client)).body(client);
 
         } finally {
             healthCheckService.recordApiCall("/api/clients/{id}", System.currentTimeMillis() - startTime);
@@ -116,12 +508,21 @@ public class ClientController {
      */
     @GetMapping("/account/{accountNumber}")
     @Timed(value = "api.clients.getByAccount", description = "Get client by account number")
-    public ResponseEntity<ClientDTO> getClientByAccount(@PathVariable String accountNumber) {
+    public ResponseEntity<ClientDTO> getClientByAccount(@PathVariable String accountNumber, WebRequest request) {
         long startTime = System.currentTimeMillis();
+        hotKeyTracker.record(ClientKeyType.ACCOUNT_NUMBER, accountNumber);
 
         try {
+            // Условный запрос проверяется по версии, не собирая DTO
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<ClientVersion> version = clientService.getClientVersionByAccountNumber(accountNumber);
+                if (version.isPresent() && request.checkNotModified(eTags.strong(version.get()))) {
+                    return null;
+                }
+            }
+
             ClientDTO client = clientService.getClientByAccountNumber(accountNumber);
-            return ResponseEntity.ok(client);
+            return ResponseEntity.ok().eTag(eTags.strong(client)).body(client);
 
         } finally {
             healthCheckService.recordApiCall("/api/clients/account/{accountNumber}",
@@ -129,6 +530,46 @@ public class ClientController {
         }
     }
 
+    /**
+     * Получить клиента по уникальному идентификатору
+     */
+    @GetMapping("/unique/{uniqueId}")
+    @Timed(value = "api.clients.getByUniqueId", description = "Get client by unique ID")
+    public ResponseEntity<ClientDTO> getClientByUniqueId(@PathVariable String uniqueId) {
+        long startTime = System.currentTimeMillis();
+        hotKeyTracker.record(ClientKeyType.UNIQUE_ID, uniqueId);
+
+        try {
+            ClientDTO client = clientService.getClientByUniqueId(uniqueId);
+            return ResponseEntity.ok().eTag(eTags.strong(client)).body(client);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/unique/{uniqueId}",
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Пакетный поиск клиентов по ID, номерам счетов или уникальным ID
+     */
+    @PostMapping("/batch")
+    @Timed(value = "api.clients.batch", description = "Get clients by a batch of keys")
+    public ResponseEntity<ClientBatchResponseDTO> getClientsBatch(@Valid @RequestBody ClientBatchRequestDTO request) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            ClientBatchResponseDTO response = clientService.getClientsByKeys(request.getKeyType(), request.getKeys());
+
+            log.info("Пакетный поиск клиентов по {}: найдено {}, не найдено {}",
+                    request.getKeyType(), response.getFound().size(), response.getMissing().size());
+
+            return ResponseEntity.ok(response);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/batch", System.currentTimeMillis() - startTime);
+        }
+    }
+
     /**
      * Создать нового клиента
      */
@@ -218,17 +659,51 @@ public class ClientController {
         }
     }
 
+    /**
+     * Фильтр клиентов по валютам, гражданствам и возрасту с точным количеством (порядок по ID)
+     */
+    @GetMapping("/filter")
+    @Timed(value = "api.clients.filter", description = "Filter clients by currency, nationality and age")
+    public ResponseEntity<PageEnvelope<ClientDTO>> filterClients(
+            @RequestParam(required = false) List<Currency> currency,
+            @RequestParam(required = false) List<Nationality> nationality,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            PageEnvelope<ClientDTO> clients = clientService.filterClients(
+                    currency, nationality, minAge, maxAge, page, size);
+
+            log.info("Фильтр клиентов: currency={}, nationality={}, возраст {} - {}, найдено {}",
+                    currency, nationality, minAge, maxAge, clients.getTotal());
+
+            return ResponseEntity.ok(clients);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/filter", System.currentTimeMillis() - startTime);
+        }
+    }
+
     /**
      * Получить статистику по валютам
      */
     @GetMapping("/statistics/currency")
     @Timed(value = "api.clients.statistics.currency", description = "Get currency statistics")
-    public ResponseEntity<Map<Currency, Long>> getCurrencyStatistics() {
+    public ResponseEntity<Map<Currency, Long>> getCurrencyStatistics(WebRequest request) {
         long startTime = System.currentTimeMillis();
 
         try {
+            String eTag = eTags.weak("statistics", "currency");
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
             Map<Currency, Long> statistics = clientService.getCurrencyStatistics();
-            return ResponseEntity.ok(statistics);
+            return ResponseEntity.ok().eTag(eTag).body(statistics);
 
         } finally {
             healthCheckService.recordApiCall("/api/clients/statistics/currency",
@@ -241,12 +716,17 @@ public class ClientController {
      */
     @GetMapping("/statistics/nationality")
     @Timed(value = "api.clients.statistics.nationality", description = "Get nationality statistics")
-    public ResponseEntity<Map<Nationality, Long>> getNationalityStatistics() {
+    public ResponseEntity<Map<Nationality, Long>> getNationalityStatistics(WebRequest request) {
         long startTime = System.currentTimeMillis();
 
         try {
+            String eTag = eTags.weak("statistics", "nationality");
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
             Map<Nationality, Long> statistics = clientService.getNationalityStatistics();
-            return ResponseEntity.ok(statistics);
+            return ResponseEntity.ok().eTag(eTag).body(statistics);
 
         } finally {
             healthCheckService.recordApiCall("/api/clients/statistics/nationality",
@@ -254,6 +734,91 @@ public class ClientController {
         }
     }
 
+    /**
+     * Получить ряд регистраций клиентов за период по дням, неделям или месяцам
+     */
+    @GetMapping("/statistics/growth")
+    @Timed(value = "api.clients.statistics.growth", description = "Get client registrations over time")
+    public ResponseEntity<ClientGrowthDTO> getGrowthStatistics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") TimeGranularity granularity,
+            @RequestParam(defaultValue = "NONE") GrowthGroupBy groupBy,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) Nationality nationality,
+            WebRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            String eTag = eTags.weak("statistics", "growth", from, to, granularity, groupBy, currency, nationality);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            ClientGrowthDTO growth = clientGrowthService.getGrowth(from, to, granularity, groupBy, currency, nationality);
+            return ResponseEntity.ok().eTag(eTag).body(growth);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/statistics/growth",
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Срез куба клиентов: валюта × гражданство (регион) × возрастная группа с фильтрами.
+     * Возраст — полных лет на дату ageAsOf из ответа, как в /filter и /analytics.
+     */
+    @GetMapping("/cube")
+    @Timed(value = "api.clients.cube", description = "Get client cube slice")
+    public ResponseEntity<ClientCubeDTO> getClientCube(
+            @RequestParam(required = false) List<CubeDimension> groupBy,
+            @RequestParam(required = false) List<Currency> currency,
+            @RequestParam(required = false) List<Nationality> nationality,
+            @RequestParam(required = false) List<Region> region,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            WebRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            String eTag = eTags.weak("cube", groupBy, currency, nationality, region, minAge, maxAge);
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+
+            ClientCubeDTO cube = clientCubeService.query(groupBy, currency, nationality, region, minAge, maxAge);
+            return ResponseEntity.ok().eTag(eTag).body(cube);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/cube", System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Аналитика по колоночному снимку: количество и распределения по валюте, гражданству и возрасту
+     */
+    @GetMapping("/analytics")
+    @Timed(value = "api.clients.analytics", description = "Get client analytics from columnar snapshot")
+    public ResponseEntity<ClientAnalyticsDTO> getClientAnalytics(
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) Nationality nationality,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+            @RequestParam(defaultValue = "10") int ageStep) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            ClientAnalyticsDTO analytics = clientColumnarService.analyze(
+                    currency, nationality, minAge, maxAge, createdFrom, createdTo, ageStep);
+            return ResponseEntity.ok(analytics);
+
+        } finally {
+            healthCheckService.recordApiCall("/api/clients/analytics", System.currentTimeMillis() - startTime);
+        }
+    }
+
     /**
      * Получить последних зарегистрированных клиентов
      */
@@ -1,6 +1,8 @@
 package com.bank.onlinebank.controller;
 
 import com.bank.onlinebank.dto.HealthCheckDTO;
+import com.bank.onlinebank.dto.HotKeyDTO;
+import com.bank.onlinebank.enums.ClientKeyType;
 import com.bank.onlinebank.service.HealthCheckService;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
@@ -109,6 +111,7 @@ public class HealthCheckController {
                 health.getMetrics().getTotalApiCalls(),
                 health.getMetrics().getAverageResponseTime(),
                 health.getMetrics().getEndpointMetrics(),
+                health.getMetrics().getHotKeys(),
                 health.getUptime()
         );
 
@@ -154,6 +157,7 @@ public class HealthCheckController {
             Long totalApiCalls,
             Long averageResponseTime,
             java.util.Map<String, java.util.Map<String, Object>> endpointMetrics,
+            java.util.Map<ClientKeyType, java.util.List<HotKeyDTO>> hotKeys,
             String uptime
     ) {}
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.bank.onlinebank.controller;
 
 import com.bank.onlinebank.config.DatabaseConfig;
 import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.dto.CursorPageDTO;
+import com.bank.onlinebank.dto.SlicePageDTO;
 import com.bank.onlinebank.enums.Currency;
 import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.TotalCountMode;
 import com.bank.onlinebank.service.ClientService;
 import com.bank.onlinebank.service.HealthCheckService;
 import jakarta.validation.Valid;
@@ -56,9 +59,10 @@ public class HomeController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "lastName") String sort,
             @RequestParam(defaultValue = "ASC") String direction,
+            @RequestParam(required = false) String after,
             Model model) {
 
-        log.debug("Отображение списка клиентов: page={}, search={}", page, search);
+        log.debug("Отображение списка клиентов: page={}, after={}, search={}", page, after, search);
 
         // Проверяем доступность БД
         if (!databaseHealthIndicator.isHealthy()) {
@@ -79,16 +83,35 @@ public class HomeController {
 
         try {
             Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-            Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
 
-            Page<ClientDTO> clients = clientService.searchClients(search, currency, nationality, pageable);
-
-            // Добавляем данные для пагинации
-            model.addAttribute("clients", clients);
-            model.addAttribute("currentPage", page);
-            model.addAttribute("totalPages", clients.getTotalPages());
-            model.addAttribute("totalItems", clients.getTotalElements());
-            model.addAttribute("pageNumbers", getPageNumbers(clients));
+            if (after != null) {
+                // Курсорная навигация: без OFFSET и без подсчета общего количества
+                CursorPageDTO<ClientDTO> clients = clientService.searchClientsAfter(
+                        search, currency, nationality, sort, sortDirection, after, size);
+
+                model.addAttribute("keyset", true);
+                model.addAttribute("clients", clients.getContent());
+                model.addAttribute("hasNext", clients.isHasNext());
+                model.addAttribute("nextCursor", clients.getNextCursor());
+                model.addAttribute("currentPage", 0);
+                model.addAttribute("totalPages", 0);
+                model.addAttribute("pageNumbers", new int[0]);
+            } else {
+                Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+
+                // Общее количество берется из оценки планировщика, а не из COUNT(*)
+                SlicePageDTO<ClientDTO> clients = clientService.searchClients(
+                        search, currency, nationality, pageable, TotalCountMode.ESTIMATED);
+
+                // Добавляем данные для пагинации
+                model.addAttribute("clients", clients.getContent());
+                model.addAttribute("currentPage", page);
+                model.addAttribute("totalPages", clients.getTotalPages());
+                model.addAttribute("totalItems", clients.getTotalElements());
+                model.addAttribute("totalEstimated", clients.isEstimated() && clients.isHasNext());
+                model.addAttribute("hasNext", clients.isHasNext());
+                model.addAttribute("pageNumbers", getPageNumbers(page, clients.getTotalPages()));
+            }
 
             // Параметры поиска и сортировки
             model.addAttribute("search", search);
@@ -281,13 +304,11 @@ public class HomeController {
     /**
      * Вспомогательный метод для генерации номеров страниц
      */
-    private int[] getPageNumbers(Page<?> page) {
-        int totalPages = page.getTotalPages();
+    private int[] getPageNumbers(int currentPage, int totalPages) {
         if (totalPages <= 7) {
             return IntStream.rangeClosed(0, totalPages - 1).toArray();
         }
 
-        int currentPage = page.getNumber();
         int start = Math.max(0, currentPage - 3);
         int end = Math.min(totalPages - 1, currentPage + 3);
 
@@ -0,0 +1,37 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO аналитики по колоночному снимку клиентов
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientAnalyticsDTO {
+
+    private Long total; // клиентов, попавших под фильтры
+
+    private Map<Currency, Long> byCurrency;
+
+    private Map<Nationality, Long> byNationality; // по убыванию количества
+
+    private Map<String, Long> ageDistribution; // возрастная группа -> количество
+
+    private Long scannedRows;
+
+    private String kernel; // vector или scalar
+
+    private Long elapsedMicros;
+
+    private LocalDateTime refreshedAt; // время последнего обновления снимка из БД
+}
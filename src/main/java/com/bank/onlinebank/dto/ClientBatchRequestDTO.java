@@ -0,0 +1,27 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.ClientKeyType;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO запроса пакетного поиска клиентов по ключам одного типа
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBatchRequestDTO {
+
+    @NotNull(message = "Тип ключа обязателен")
+    private ClientKeyType keyType;
+
+    @NotEmpty(message = "Список ключей не должен быть пустым")
+    private List<String> keys;
+}
@@ -0,0 +1,26 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.ClientKeyType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO ответа пакетного поиска: найденные клиенты в порядке ключей запроса
+ * и ключи, по которым клиенты не найдены
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientBatchResponseDTO {
+
+    private ClientKeyType keyType;
+
+    private List<ClientDTO> found;
+
+    private List<String> missing;
+}
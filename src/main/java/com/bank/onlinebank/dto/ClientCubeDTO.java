@@ -0,0 +1,32 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.CubeDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO среза куба клиентов.
+ * Возраст в фильтрах и возрастных группах — полных лет на дату ageAsOf (дату построения куба).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientCubeDTO {
+
+    private List<CubeDimension> groupBy;
+
+    private Long total; // клиентов, попавших под фильтры
+
+    private List<CubeCellDTO> cells;
+
+    private LocalDateTime builtAt; // время последнего полного построения куба
+
+    private LocalDate ageAsOf; // дата, на которую посчитан возраст
+}
@@ -66,6 +66,8 @@ public class ClientDTO {
 
     private LocalDateTime updatedAt;
 
+    private Long version; // версия оптимистической блокировки, основа ETag
+
     /**
      * Получить отображаемое имя валюты с символом
      */
@@ -0,0 +1,33 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.GrowthGroupBy;
+import com.bank.onlinebank.enums.TimeGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO временного ряда регистраций клиентов
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientGrowthDTO {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private TimeGranularity granularity;
+
+    private GrowthGroupBy groupBy;
+
+    private LocalDate rolledUpThrough; // последний день, взятый из агрегатов; более поздние посчитаны по clients
+
+    private List<GrowthPointDTO> points;
+}
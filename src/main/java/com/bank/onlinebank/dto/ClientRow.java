@@ -0,0 +1,55 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.entity.Client;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Проекция строки клиента для запросов только на чтение.
+ * <p>
+ * Заполняется конструктором прямо из JPQL ({@code SELECT new ...ClientRow(...)}), минуя
+ * создание управляемых сущностей, снимки для dirty checking и persistence context.
+ * Порядок компонентов совпадает с {@code ClientRepository.CLIENT_ROW}.
+ * </p>
+ */
+public record ClientRow(Long id,
+                        String uniqueId,
+                        String lastName,
+                        String firstName,
+                        String middleName,
+                        LocalDate birthDate,
+                        String accountNumber,
+                        Currency currency,
+                        Nationality nationality,
+                        String phoneNumber,
+                        LocalDateTime createdAt,
+                        LocalDateTime updatedAt,
+                        Long version) {
+
+    /**
+     * Конвертация в DTO; вычисляемые поля — по тем же правилам, что у сущности
+     */
+    public ClientDTO toDTO() {
+        return ClientDTO.builder()
+                .id(id)
+                .uniqueId(uniqueId)
+                .lastName(lastName)
+                .firstName(firstName)
+                .middleName(middleName)
+                .fullName(Client.fullName(lastName, firstName, middleName))
+                .shortName(Client.shortName(lastName, firstName, middleName))
+                .birthDate(birthDate)
+                .age(Client.age(birthDate))
+                .accountNumber(accountNumber)
+                .currency(currency)
+                .nationality(nationality)
+                .phoneNumber(phoneNumber)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(version)
+                .build();
+    }
+}
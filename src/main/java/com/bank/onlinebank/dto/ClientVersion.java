@@ -0,0 +1,10 @@
+package com.bank.onlinebank.dto;
+
+/**
+ * Проекция ID и версии клиента: достаточна для проверки ETag без загрузки данных
+ *
+ * @param id      ID клиента
+ * @param version версия оптимистической блокировки
+ */
+public record ClientVersion(Long id, Long version) {
+}
@@ -0,0 +1,31 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.Region;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ячейка куба клиентов; заполнены только измерения, по которым шла группировка
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CubeCellDTO {
+
+    private Currency currency;
+
+    private Nationality nationality;
+
+    private Region region;
+
+    private String ageBucket;
+
+    private Long count;
+}
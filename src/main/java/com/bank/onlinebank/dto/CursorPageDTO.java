@@ -0,0 +1,34 @@
+package com.bank.onlinebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO страницы для keyset-пагинации: без общего количества записей,
+ * с непрозрачным курсором для запроса следующей страницы
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String nextCursor; // передается в параметре after следующего запроса
+
+    /**
+     * Количество элементов на текущей странице
+     */
+    public int getNumberOfElements() {
+        return content != null ? content.size() : 0;
+    }
+}
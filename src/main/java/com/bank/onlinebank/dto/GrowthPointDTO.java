@@ -0,0 +1,30 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Точка временного ряда регистраций клиентов
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GrowthPointDTO {
+
+    private LocalDate period; // начало дня, недели (понедельник) или месяца
+
+    private Currency currency; // только при разбивке по валюте
+
+    private Nationality nationality; // только при разбивке по гражданству
+
+    private Long registrations;
+}
@@ -0,0 +1,22 @@
+package com.bank.onlinebank.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO часто запрашиваемого ключа поиска клиента
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotKeyDTO {
+
+    private String key;
+
+    private Long count; // оценка числа запросов за скользящее окно (сверху)
+
+    private Double ratePerSecond;
+}
@@ -1,10 +1,12 @@
 package com.bank.onlinebank.dto;
 
+import com.bank.onlinebank.enums.ClientKeyType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,6 +26,8 @@ public class MetricsDTO {
 
     private Map<String, Object> actuatorMetrics;
 
+    private Map<ClientKeyType, List<HotKeyDTO>> hotKeys; // самые частые ключи запросов клиента
+
     /**
      * Получить метрики для конкретного endpoint
      */
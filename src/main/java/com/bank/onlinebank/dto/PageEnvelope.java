@@ -0,0 +1,34 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.TotalCountMode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Компактная обертка страницы: только элементы, номер, размер, признак следующей
+ * страницы и (если запрошено) общее количество
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageEnvelope<T> {
+
+    private List<T> items;
+
+    private int page;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private Long total; // null в режиме NONE
+
+    private TotalCountMode totalMode;
+}
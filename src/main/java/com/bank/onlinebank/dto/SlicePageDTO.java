@@ -0,0 +1,56 @@
+package com.bank.onlinebank.dto;
+
+import com.bank.onlinebank.enums.TotalCountMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO страницы с номером, признаком следующей страницы и необязательным (возможно,
+ * приблизительным) общим количеством записей
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlicePageDTO<T> {
+
+    private List<T> content;
+
+    private int number;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private Long totalElements; // null в режиме NONE
+
+    private TotalCountMode totalMode;
+
+    /**
+     * Количество элементов на текущей странице
+     */
+    public int getNumberOfElements() {
+        return content != null ? content.size() : 0;
+    }
+
+    /**
+     * Количество страниц по totalElements или null, если общее количество не запрашивалось
+     */
+    public Integer getTotalPages() {
+        if (totalElements == null || size < 1) {
+            return null;
+        }
+        return (int) ((totalElements + size - 1) / size);
+    }
+
+    /**
+     * Общее количество получено оценкой, а не точным подсчетом
+     */
+    public boolean isEstimated() {
+        return totalMode == TotalCountMode.ESTIMATED;
+    }
+}
@@ -2,6 +2,8 @@ package com.bank.onlinebank.entity;
 
 import com.bank.onlinebank.enums.Currency;
 import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.util.RussianMetaphone;
+import com.bank.onlinebank.util.Transliterator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -20,7 +22,8 @@ import java.util.Objects;
         @Index(name = "idx_unique_id", columnList = "uniqueId"),
         @Index(name = "idx_last_name", columnList = "lastName"),
         @Index(name = "idx_account_number", columnList = "accountNumber"),
-        @Index(name = "idx_phone_number", columnList = "phoneNumber")
+        @Index(name = "idx_phone_number", columnList = "phoneNumber"),
+        @Index(name = "idx_last_name_phonetic", columnList = "lastNamePhonetic")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Client {
@@ -75,6 +78,18 @@ public class Client {
     @Pattern(regexp = "^\\+[1-9]\\d{1,14}$", message = "Номер телефона должен быть в международном формате E.164 (например: +1234567890)")
     private String phoneNumber;
 
+    /**
+     * Ключ поиска по ФИО в латинской свертке, см. {@link Transliterator}
+     */
+    @Column(length = 320)
+    private String searchKey;
+
+    /**
+     * Фонетический код фамилии, см. {@link RussianMetaphone}
+     */
+    @Column(length = 100)
+    private String lastNamePhonetic;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -113,11 +128,21 @@ public class Client {
         if (updatedAt == null) {
             updatedAt = LocalDateTime.now();
         }
+        refreshSearchKeys();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        refreshSearchKeys();
+    }
+
+    /**
+     * Пересчитать производные ключи поиска по текущему ФИО
+     */
+    public void refreshSearchKeys() {
+        searchKey = Transliterator.searchKey(lastName, firstName, middleName);
+        lastNamePhonetic = RussianMetaphone.encode(lastName);
     }
 
     /**
@@ -125,6 +150,29 @@ public class Client {
      */
     @Transient
     public String getFullName() {
+        return fullName(lastName, firstName, middleName);
+    }
+
+    /**
+     * Получить краткое имя клиента (Фамилия И.О.)
+     */
+    @Transient
+    public String getShortName() {
+        return shortName(lastName, firstName, middleName);
+    }
+
+    /**
+     * Получить возраст клиента
+     */
+    @Transient
+    public int getAge() {
+        return age(birthDate);
+    }
+
+    /**
+     * Полное имя по частям ФИО (общая логика для сущности и проекций)
+     */
+    public static String fullName(String lastName, String firstName, String middleName) {
         StringBuilder fullName = new StringBuilder();
         fullName.append(lastName).append(" ").append(firstName);
         if (middleName != null && !middleName.trim().isEmpty()) {
@@ -134,10 +182,9 @@ public class Client {
     }
 
     /**
-     * Получить краткое имя клиента (Фамилия И.О.)
+     * Краткое имя (Фамилия И.О.) по частям ФИО
      */
-    @Transient
-    public String getShortName() {
+    public static String shortName(String lastName, String firstName, String middleName) {
         StringBuilder shortName = new StringBuilder();
         shortName.append(lastName).append(" ").append(firstName.charAt(0)).append(".");
         if (middleName != null && !middleName.trim().isEmpty()) {
@@ -147,10 +194,9 @@ public class Client {
     }
 
     /**
-     * Получить возраст клиента
+     * Возраст по дате рождения
      */
-    @Transient
-    public int getAge() {
+    public static int age(LocalDate birthDate) {
         return LocalDate.now().getYear() - birthDate.getYear();
     }
 
@@ -235,6 +281,14 @@ public class Client {
         this.phoneNumber = phoneNumber;
     }
 
+    public String getSearchKey() {
+        return searchKey;
+    }
+
+    public String getLastNamePhonetic() {
+        return lastNamePhonetic;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,22 @@
+package com.bank.onlinebank.enums;
+
+/**
+ * Тип ключа для пакетного поиска клиентов
+ */
+public enum ClientKeyType {
+
+    /**
+     * Внутренний ID клиента
+     */
+    ID,
+
+    /**
+     * Номер счета
+     */
+    ACCOUNT_NUMBER,
+
+    /**
+     * Уникальный идентификатор (UUID)
+     */
+    UNIQUE_ID
+}
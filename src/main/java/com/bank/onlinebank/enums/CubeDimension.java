@@ -0,0 +1,20 @@
+package com.bank.onlinebank.enums;
+
+/**
+ * Измерения куба клиентов
+ */
+public enum CubeDimension {
+
+    CURRENCY,
+    NATIONALITY,
+
+    /**
+     * Укрупнение гражданства: СНГ, ЕС, прочие
+     */
+    REGION,
+
+    /**
+     * Возрастная группа по границам app.cube.age-buckets
+     */
+    AGE_BUCKET
+}
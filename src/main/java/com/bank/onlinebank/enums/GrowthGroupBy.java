@@ -0,0 +1,35 @@
+package com.bank.onlinebank.enums;
+
+/**
+ * Разбивка временного ряда регистраций клиентов
+ */
+public enum GrowthGroupBy {
+
+    /**
+     * Только общее количество за период
+     */
+    NONE,
+
+    /**
+     * По валюте счета
+     */
+    CURRENCY,
+
+    /**
+     * По гражданству
+     */
+    NATIONALITY,
+
+    /**
+     * По валюте и гражданству
+     */
+    CURRENCY_AND_NATIONALITY;
+
+    public boolean byCurrency() {
+        return this == CURRENCY || this == CURRENCY_AND_NATIONALITY;
+    }
+
+    public boolean byNationality() {
+        return this == NATIONALITY || this == CURRENCY_AND_NATIONALITY;
+    }
+}
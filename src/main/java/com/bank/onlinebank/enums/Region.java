@@ -0,0 +1,21 @@
+package com.bank.onlinebank.enums;
+
+/**
+ * Регион гражданства для укрупненной статистики
+ */
+public enum Region {
+
+    CIS,
+    EU,
+    OTHER;
+
+    /**
+     * Регион гражданства по {@link Nationality#isCIS()} и {@link Nationality#isEU()}
+     */
+    public static Region of(Nationality nationality) {
+        if (nationality.isCIS()) {
+            return CIS;
+        }
+        return nationality.isEU() ? EU : OTHER;
+    }
+}
@@ -0,0 +1,24 @@
+package com.bank.onlinebank.enums;
+
+/**
+ * Шаг временного ряда статистики
+ */
+public enum TimeGranularity {
+
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month");
+
+    private final String truncUnit;
+
+    TimeGranularity(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    /**
+     * Единица для {@code date_trunc} в PostgreSQL (неделя начинается с понедельника)
+     */
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.onlinebank.enums;
+
+/**
+ * Способ получения общего количества записей для постраничных ответов
+ */
+public enum TotalCountMode {
+
+    /**
+     * Точный COUNT(*) по тому же условию, что и страница
+     */
+    EXACT,
+
+    /**
+     * Оценка планировщика PostgreSQL (EXPLAIN) или pg_class.reltuples, без выполнения COUNT
+     */
+    ESTIMATED,
+
+    /**
+     * Без общего количества: только признак наличия следующей страницы
+     */
+    NONE
+}
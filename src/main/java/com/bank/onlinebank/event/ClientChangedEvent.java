@@ -0,0 +1,44 @@
+package com.bank.onlinebank.event;
+
+import com.bank.onlinebank.dto.ClientDTO;
+
+/**
+ * Событие изменения данных клиента.
+ * <p>
+ * Публикуется {@link com.bank.onlinebank.service.ClientService} внутри транзакции
+ * записи и содержит состояние клиента до и после изменения. Индексы и кэши,
+ * которые должны отражать изменения, подписываются на него через
+ * {@code @TransactionalEventListener} и обновляются после коммита.
+ * </p>
+ *
+ * @param type     тип изменения
+ * @param previous состояние до изменения (null для CREATED)
+ * @param current  состояние после изменения (null для DELETED)
+ */
+public record ClientChangedEvent(ChangeType type, ClientDTO previous, ClientDTO current) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ClientChangedEvent created(ClientDTO current) {
+        return new ClientChangedEvent(ChangeType.CREATED, null, current);
+    }
+
+    public static ClientChangedEvent updated(ClientDTO previous, ClientDTO current) {
+        return new ClientChangedEvent(ChangeType.UPDATED, previous, current);
+    }
+
+    public static ClientChangedEvent deleted(ClientDTO previous) {
+        return new ClientChangedEvent(ChangeType.DELETED, previous, null);
+    }
+
+    /**
+     * ID клиента, к которому относится событие
+     */
+    public Long clientId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+}
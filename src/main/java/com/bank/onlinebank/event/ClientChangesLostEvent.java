@@ -0,0 +1,14 @@
+package com.bank.onlinebank.event;
+
+/**
+ * Событие потери уведомлений об изменениях клиентов.
+ * <p>
+ * Публикуется, когда узел мог пропустить изменения, сделанные другими узлами
+ * (например, после переподключения к шине инвалидации). Кэши и индексы в памяти
+ * по нему сбрасываются целиком или перестраиваются из БД.
+ * </p>
+ *
+ * @param reason причина для журнала
+ */
+public record ClientChangesLostEvent(String reason) {
+}
@@ -16,4 +16,16 @@ public class ClientNotFoundException extends RuntimeException {
     public ClientNotFoundException(Long clientId) {
         super("Клиент с ID " + clientId + " не найден");
     }
-}
\ No newline at end of file
+
+    protected ClientNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Исключение без стека вызовов: для ожидаемых промахов поиска, где стек не нужен,
+     * а его заполнение стоит дороже самого ответа 404
+     */
+    public static ClientNotFoundException stackless(String message) {
+        return new ClientNotFoundException(message, false);
+    }
+}
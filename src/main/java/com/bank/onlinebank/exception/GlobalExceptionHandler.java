@@ -31,7 +31,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ClientNotFoundException.class)
     public Object handleClientNotFound(ClientNotFoundException ex, HttpServletRequest request) {
-        log.error("Клиент не найден: {}", ex.getMessage());
+        // Промахи — штатная ситуация (в том числе перебор несуществующих счетов), не засоряем лог
+        log.debug("Клиент не найден: {}", ex.getMessage());
 
         if (isApiRequest(request)) {
             ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
@@ -0,0 +1,86 @@
+package com.bank.onlinebank.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Оценка количества клиентов без выполнения COUNT(*).
+ * <p>
+ * Для таблицы целиком используется {@code pg_class.reltuples} (обновляется ANALYZE/autovacuum),
+ * для условий — оценка строк корневого узла плана из {@code EXPLAIN (FORMAT JSON)}.
+ * Оба способа стоят доли миллисекунды независимо от размера таблицы.
+ * </p>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ClientCountEstimator {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Оценка числа строк таблицы clients; пусто, если таблица еще не анализировалась
+     */
+    public OptionalLong estimateTotal() {
+        Long reltuples = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass('clients')",
+                Map.of(), Long.class);
+        return reltuples != null && reltuples >= 0 ? OptionalLong.of(reltuples) : OptionalLong.empty();
+    }
+
+    /**
+     * Оценка для условий {@link ClientRepository#searchClients}
+     */
+    public OptionalLong estimateSearch(String searchTerm, String currency, String nationality) {
+        return estimate(ClientRepository.NATIVE_SEARCH_TERM + " AND " + ClientRepository.NATIVE_FILTERS,
+                filters(currency, nationality).addValue("searchTerm", searchTerm, Types.VARCHAR));
+    }
+
+    /**
+     * Оценка для условий {@link ClientRepository#fullTextSearchIds}
+     */
+    public OptionalLong estimateFullTextSearch(String tsQuery, String currency, String nationality) {
+        return estimate(ClientRepository.FULL_TEXT_MATCH + " AND " + ClientRepository.NATIVE_FILTERS,
+                filters(currency, nationality).addValue("tsQuery", tsQuery, Types.VARCHAR));
+    }
+
+    /**
+     * Оценка для условий {@link ClientRepository#searchKeySearchIds}
+     */
+    public OptionalLong estimateSearchKeySearch(String tsQuery, String currency, String nationality) {
+        return estimate(ClientRepository.SEARCH_KEY_MATCH + " AND " + ClientRepository.NATIVE_FILTERS,
+                filters(currency, nationality).addValue("tsQuery", tsQuery, Types.VARCHAR));
+    }
+
+    /**
+     * Оценка числа строк корневого узла плана для {@code SELECT 1 FROM clients c WHERE ...}
+     */
+    private OptionalLong estimate(String whereClause, MapSqlParameterSource params) {
+        try {
+            String plan = jdbcTemplate.queryForObject(
+                    "EXPLAIN (FORMAT JSON) SELECT 1 FROM clients c WHERE " + whereClause,
+                    params, String.class);
+            JsonNode planRows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return planRows.isNumber() ? OptionalLong.of(planRows.asLong()) : OptionalLong.empty();
+        } catch (Exception e) {
+            log.warn("Не удалось получить оценку количества клиентов: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    private static MapSqlParameterSource filters(String currency, String nationality) {
+        return new MapSqlParameterSource()
+                .addValue("currency", currency, Types.VARCHAR)
+                .addValue("nationality", nationality, Types.VARCHAR);
+    }
+}
@@ -0,0 +1,146 @@
+package com.bank.onlinebank.repository;
+
+import com.bank.onlinebank.dto.GrowthPointDTO;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.GrowthGroupBy;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.TimeGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Дневные агрегаты регистраций клиентов (client_growth_daily) и их водяной знак.
+ * <p>
+ * Агрегаты пересчитываются целыми днями диапазоном по {@code idx_clients_created_at},
+ * поэтому стоимость пересчета зависит только от числа клиентов в этих днях.
+ * Чтение временного ряда идет по агрегатам и не зависит от размера таблицы clients.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClientGrowthRepository {
+
+    /**
+     * Имя водяного знака в rollup_watermarks
+     */
+    public static final String WATERMARK = "client_growth_daily";
+
+    private static final String FILTERS =
+            "(CAST(:currency AS VARCHAR) IS NULL OR currency = CAST(:currency AS VARCHAR)) AND " +
+            "(CAST(:nationality AS VARCHAR) IS NULL OR nationality = CAST(:nationality AS VARCHAR))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Последний день, полностью учтенный в агрегатах
+     */
+    public Optional<LocalDate> findWatermark() {
+        List<LocalDate> days = jdbcTemplate.queryForList(
+                "SELECT closed_through FROM rollup_watermarks WHERE name = :name",
+                Map.of("name", WATERMARK), LocalDate.class);
+        return days.stream().findFirst();
+    }
+
+    /**
+     * Сохранить водяной знак агрегатов
+     */
+    public void saveWatermark(LocalDate closedThrough) {
+        jdbcTemplate.update(
+                "INSERT INTO rollup_watermarks (name, closed_through, updated_at) " +
+                "VALUES (:name, :closedThrough, CURRENT_TIMESTAMP) " +
+                "ON CONFLICT (name) DO UPDATE SET closed_through = EXCLUDED.closed_through, " +
+                "updated_at = EXCLUDED.updated_at",
+                new MapSqlParameterSource("name", WATERMARK).addValue("closedThrough", closedThrough));
+    }
+
+    /**
+     * День первой регистрации клиента (по индексу created_at)
+     */
+    public Optional<LocalDate> findFirstRegistrationDay() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT CAST(MIN(created_at) AS DATE) FROM clients", Map.of(), LocalDate.class));
+    }
+
+    /**
+     * Взять транзакционную advisory-блокировку пересчета; false, если ее держит другой узел
+     */
+    public boolean tryLockRollup() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext(:name))", Map.of("name", WATERMARK), Boolean.class));
+    }
+
+    /**
+     * Пересчитать агрегаты за дни [from, to); возвращает количество записанных строк агрегатов
+     */
+    public int rollup(LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("fromTime", from.atStartOfDay())
+                .addValue("toTime", to.atStartOfDay());
+
+        jdbcTemplate.update("DELETE FROM client_growth_daily WHERE day >= :from AND day < :to", params);
+        return jdbcTemplate.update(
+                "INSERT INTO client_growth_daily (day, currency, nationality, registrations) " +
+                "SELECT CAST(created_at AS DATE), currency, nationality, COUNT(*) FROM clients " +
+                "WHERE created_at >= :fromTime AND created_at < :toTime " +
+                "GROUP BY CAST(created_at AS DATE), currency, nationality", params);
+    }
+
+    /**
+     * Временной ряд по агрегатам за дни [from, to]
+     */
+    public List<GrowthPointDTO> sumRollup(LocalDate from, LocalDate to, TimeGranularity granularity,
+                                          GrowthGroupBy groupBy, Currency currency, Nationality nationality) {
+        MapSqlParameterSource params = filters(currency, nationality)
+                .addValue("from", from)
+                .addValue("to", to);
+        return query("SUM(registrations)", "CAST(day AS TIMESTAMP)",
+                "client_growth_daily WHERE day >= :from AND day <= :to", granularity, groupBy, params);
+    }
+
+    /**
+     * Временной ряд напрямую по clients за дни [from, to] — для дней, еще не попавших в агрегаты
+     */
+    public List<GrowthPointDTO> sumLive(LocalDate from, LocalDate to, TimeGranularity granularity,
+                                        GrowthGroupBy groupBy, Currency currency, Nationality nationality) {
+        MapSqlParameterSource params = filters(currency, nationality)
+                .addValue("fromTime", from.atStartOfDay())
+                .addValue("toTime", to.plusDays(1).atStartOfDay());
+        return query("COUNT(*)", "created_at",
+                "clients WHERE created_at >= :fromTime AND created_at < :toTime", granularity, groupBy, params);
+    }
+
+    private List<GrowthPointDTO> query(String aggregate, String timeColumn, String source, TimeGranularity granularity,
+                                       GrowthGroupBy groupBy, MapSqlParameterSource params) {
+        // Единица подставляется литералом: с параметром выражения в SELECT и GROUP BY не совпали бы
+        String period = "CAST(date_trunc('" + granularity.getTruncUnit() + "', " + timeColumn + ") AS DATE)";
+        String dimensions = (groupBy.byCurrency() ? ", currency" : "") + (groupBy.byNationality() ? ", nationality" : "");
+
+        String sql = "SELECT " + period + " AS period" + dimensions + ", " + aggregate + " AS registrations " +
+                "FROM " + source + " AND " + FILTERS +
+                " GROUP BY " + period + dimensions +
+                " ORDER BY period" + dimensions;
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> GrowthPointDTO.builder()
+                .period(rs.getObject("period", LocalDate.class))
+                .currency(groupBy.byCurrency() ? Currency.valueOf(rs.getString("currency")) : null)
+                .nationality(groupBy.byNationality() ? Nationality.valueOf(rs.getString("nationality")) : null)
+                .registrations(rs.getLong("registrations"))
+                .build());
+    }
+
+    private static MapSqlParameterSource filters(Currency currency, Nationality nationality) {
+        return new MapSqlParameterSource()
+                .addValue("currency", currency != null ? currency.name() : null, Types.VARCHAR)
+                .addValue("nationality", nationality != null ? nationality.name() : null, Types.VARCHAR);
+    }
+}
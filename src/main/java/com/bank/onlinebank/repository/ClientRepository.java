@@ -1,24 +1,94 @@
 package com.bank.onlinebank.repository;
 
+import com.bank.onlinebank.dto.ClientRow;
+import com.bank.onlinebank.dto.ClientVersion;
 import com.bank.onlinebank.entity.Client;
 import com.bank.onlinebank.enums.Currency;
 import com.bank.onlinebank.enums.Nationality;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository интерфейс для работы с сущностью Client
  */
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client>,
+        ClientRepositoryCustom {
+
+    /**
+     * Конструктор проекции {@link ClientRow} для JPQL; порядок аргументов совпадает с компонентами записи.
+     */
+    String CLIENT_ROW = "new com.bank.onlinebank.dto.ClientRow(c.id, c.uniqueId, c.lastName, c.firstName, " +
+            "c.middleName, c.birthDate, c.accountNumber, c.currency, c.nationality, c.phoneNumber, " +
+            "c.createdAt, c.updatedAt, c.version)";
+
+    /**
+     * Условие комплексного поиска по подстроке, общее для сущностей и проекций.
+     */
+    String SEARCH_CONDITION =
+            "(:searchTerm IS NULL OR :searchTerm = '' OR " +
+            "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(c.middleName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "c.accountNumber LIKE CONCAT('%', :searchTerm, '%') OR " +
+            "c.phoneNumber LIKE CONCAT('%', :searchTerm, '%')) AND " +
+            "(:currency IS NULL OR c.currency = :currency) AND " +
+            "(:nationality IS NULL OR c.nationality = :nationality)";
+
+    /**
+     * Выражение tsvector по ФИО; должно совпадать с индексом idx_clients_full_name из schema.sql.
+     */
+    String FULL_NAME_VECTOR =
+            "to_tsvector('russian', c.last_name || ' ' || c.first_name || ' ' || COALESCE(c.middle_name, ''))";
+
+    /**
+     * Выражение tsvector по ключу транслитерации; должно совпадать с индексом idx_clients_search_key.
+     */
+    String SEARCH_KEY_VECTOR = "to_tsvector('simple', COALESCE(c.search_key, ''))";
+
+    /**
+     * Условие полнотекстового поиска по ФИО для нативных запросов.
+     */
+    String FULL_TEXT_MATCH = FULL_NAME_VECTOR + " @@ to_tsquery('russian', :tsQuery)";
+
+    /**
+     * Условие поиска по ключу транслитерации для нативных запросов.
+     */
+    String SEARCH_KEY_MATCH = SEARCH_KEY_VECTOR + " @@ to_tsquery('simple', :tsQuery)";
+
+    /**
+     * Нативный аналог условия по searchTerm из {@link #searchClients}.
+     */
+    String NATIVE_SEARCH_TERM =
+            "(CAST(:searchTerm AS VARCHAR) IS NULL OR CAST(:searchTerm AS VARCHAR) = '' OR " +
+            "LOWER(c.last_name) LIKE LOWER('%' || CAST(:searchTerm AS VARCHAR) || '%') OR " +
+            "LOWER(c.first_name) LIKE LOWER('%' || CAST(:searchTerm AS VARCHAR) || '%') OR " +
+            "LOWER(c.middle_name) LIKE LOWER('%' || CAST(:searchTerm AS VARCHAR) || '%') OR " +
+            "c.account_number LIKE '%' || CAST(:searchTerm AS VARCHAR) || '%' OR " +
+            "c.phone_number LIKE '%' || CAST(:searchTerm AS VARCHAR) || '%')";
+
+    /**
+     * Условия фильтров по валюте и гражданству для нативных запросов.
+     */
+    String NATIVE_FILTERS =
+            "(CAST(:currency AS VARCHAR) IS NULL OR c.currency = CAST(:currency AS VARCHAR)) AND " +
+            "(CAST(:nationality AS VARCHAR) IS NULL OR c.nationality = CAST(:nationality AS VARCHAR))";
 
     /**
      * Найти клиента по уникальному идентификатору.
@@ -35,6 +105,29 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
      */
     Optional<Client> findByPhoneNumber(String phoneNumber);
 
+    /**
+     * Версия клиента по ID без загрузки сущности.
+     */
+    @Query("SELECT new com.bank.onlinebank.dto.ClientVersion(c.id, c.version) FROM Client c WHERE c.id = :id")
+    Optional<ClientVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Версия клиента по номеру счета без загрузки сущности.
+     */
+    @Query("SELECT new com.bank.onlinebank.dto.ClientVersion(c.id, c.version) FROM Client c " +
+            "WHERE c.accountNumber = :accountNumber")
+    Optional<ClientVersion> findVersionByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Найти клиентов по списку номеров счетов.
+     */
+    List<Client> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * Найти клиентов по списку уникальных идентификаторов.
+     */
+    List<Client> findByUniqueIdIn(Collection<String> uniqueIds);
+
     /**
      * Проверить существование клиента по номеру счета.
      */
@@ -77,26 +170,152 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     /**
      * Комплексный поиск клиентов по различным критериям.
      */
-    @Query("SELECT c FROM Client c WHERE " +
-            "(:searchTerm IS NULL OR :searchTerm = '' OR " +
-            "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(c.middleName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "c.accountNumber LIKE CONCAT('%', :searchTerm, '%') OR " +
-            "c.phoneNumber LIKE CONCAT('%', :searchTerm, '%')) AND " +
-            "(:currency IS NULL OR c.currency = :currency) AND " +
-            "(:nationality IS NULL OR c.nationality = :nationality)")
+    @Query("SELECT c FROM Client c WHERE " + SEARCH_CONDITION)
     Page<Client> searchClients(@Param("searchTerm") String searchTerm,
                                @Param("currency") Currency currency,
                                @Param("nationality") Nationality nationality,
                                Pageable pageable);
 
+    /**
+     * Комплексный поиск клиентов с проекцией строк без загрузки сущностей.
+     */
+    @Query(value = "SELECT " + CLIENT_ROW + " FROM Client c WHERE " + SEARCH_CONDITION,
+            countQuery = "SELECT COUNT(c) FROM Client c WHERE " + SEARCH_CONDITION)
+    Page<ClientRow> searchClientRows(@Param("searchTerm") String searchTerm,
+                                     @Param("currency") Currency currency,
+                                     @Param("nationality") Nationality nationality,
+                                     Pageable pageable);
+
+    /**
+     * Страница всех клиентов с проекцией строк без загрузки сущностей.
+     */
+    @Query(value = "SELECT " + CLIENT_ROW + " FROM Client c",
+            countQuery = "SELECT COUNT(c) FROM Client c")
+    Page<ClientRow> findAllRows(Pageable pageable);
+
+    /**
+     * Строки клиентов по списку ID (порядок не гарантируется).
+     */
+    @Query("SELECT " + CLIENT_ROW + " FROM Client c WHERE c.id IN :ids")
+    List<ClientRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * ID клиентов полнотекстового поиска по ФИО через GIN-индекс idx_clients_full_name,
+     * в порядке релевантности (ts_rank), затем по ID, с общим количеством.
+     */
+    @Query(value = "SELECT c.id FROM clients c WHERE " + FULL_TEXT_MATCH + " AND " + NATIVE_FILTERS + " " +
+            "ORDER BY ts_rank(" + FULL_NAME_VECTOR + ", to_tsquery('russian', :tsQuery)) DESC, c.id",
+            countQuery = "SELECT COUNT(*) FROM clients c WHERE " + FULL_TEXT_MATCH + " AND " + NATIVE_FILTERS,
+            nativeQuery = true)
+    Page<Long> fullTextSearchIds(@Param("tsQuery") String tsQuery,
+                                 @Param("currency") String currency,
+                                 @Param("nationality") String nationality,
+                                 Pageable pageable);
+
+    /**
+     * ID клиентов поиска по ФИО в латинской свертке через GIN-индекс idx_clients_search_key,
+     * с общим количеством. Используется для запросов, набранных латиницей или смешанным алфавитом.
+     */
+    @Query(value = "SELECT c.id FROM clients c WHERE " + SEARCH_KEY_MATCH + " AND " + NATIVE_FILTERS + " " +
+            "ORDER BY c.last_name, c.first_name, c.id",
+            countQuery = "SELECT COUNT(*) FROM clients c WHERE " + SEARCH_KEY_MATCH + " AND " + NATIVE_FILTERS,
+            nativeQuery = true)
+    Page<Long> searchKeySearchIds(@Param("tsQuery") String tsQuery,
+                                  @Param("currency") String currency,
+                                  @Param("nationality") String nationality,
+                                  Pageable pageable);
+
+    /**
+     * Количество клиентов, найденных полнотекстовым поиском по ФИО.
+     */
+    @Query(value = "SELECT COUNT(*) FROM clients c WHERE " + FULL_TEXT_MATCH + " AND " + NATIVE_FILTERS,
+            nativeQuery = true)
+    long countFullTextSearch(@Param("tsQuery") String tsQuery,
+                             @Param("currency") String currency,
+                             @Param("nationality") String nationality);
+
+    /**
+     * Количество клиентов, найденных поиском по ключу транслитерации.
+     */
+    @Query(value = "SELECT COUNT(*) FROM clients c WHERE " + SEARCH_KEY_MATCH + " AND " + NATIVE_FILTERS,
+            nativeQuery = true)
+    long countSearchKeySearch(@Param("tsQuery") String tsQuery,
+                              @Param("currency") String currency,
+                              @Param("nationality") String nationality);
+
+    /**
+     * ID клиентов полнотекстового поиска по ФИО в порядке релевантности, без подсчета общего количества.
+     */
+    @Query(value = "SELECT c.id FROM clients c WHERE " + FULL_TEXT_MATCH + " AND " + NATIVE_FILTERS + " " +
+            "ORDER BY ts_rank(" + FULL_NAME_VECTOR + ", to_tsquery('russian', :tsQuery)) DESC, c.id",
+            nativeQuery = true)
+    Slice<Long> fullTextSearchIdSlice(@Param("tsQuery") String tsQuery,
+                                      @Param("currency") String currency,
+                                      @Param("nationality") String nationality,
+                                      Pageable pageable);
+
+    /**
+     * ID клиентов поиска по ключу транслитерации, без подсчета общего количества.
+     */
+    @Query(value = "SELECT c.id FROM clients c WHERE " + SEARCH_KEY_MATCH + " AND " + NATIVE_FILTERS + " " +
+            "ORDER BY c.last_name, c.first_name, c.id",
+            nativeQuery = true)
+    Slice<Long> searchKeySearchIdSlice(@Param("tsQuery") String tsQuery,
+                                       @Param("currency") String currency,
+                                       @Param("nationality") String nationality,
+                                       Pageable pageable);
+
+    /**
+     * Найти клиентов с созвучной фамилией по индексу idx_clients_last_name_phonetic.
+     */
+    Page<Client> findByLastNamePhonetic(String lastNamePhonetic, Pageable pageable);
+
+    /**
+     * Клиенты без рассчитанных ключей поиска (записи, созданные до появления колонок).
+     */
+    @Query("SELECT c FROM Client c WHERE c.searchKey IS NULL OR c.lastNamePhonetic IS NULL ORDER BY c.id")
+    List<Client> findWithoutSearchKey(Pageable pageable);
+
+    /**
+     * Записать ключи поиска без изменения версии клиента; триггер update_clients_updated_at
+     * не меняет updated_at, если обновлены только эти колонки.
+     */
+    @Modifying
+    @Query("UPDATE Client c SET c.searchKey = :searchKey, c.lastNamePhonetic = :lastNamePhonetic WHERE c.id = :id")
+    int updateSearchKey(@Param("id") Long id,
+                        @Param("searchKey") String searchKey,
+                        @Param("lastNamePhonetic") String lastNamePhonetic);
+
+    /**
+     * Найти клиентов по окончанию номера счета через индекс idx_clients_account_number_rev.
+     * Параметр — перевернутые цифры с завершающим '%', например для "4321" передается "1234%".
+     */
+    @Query(value = "SELECT c.* FROM clients c WHERE reverse(c.account_number) LIKE :reversedPattern " +
+            "ORDER BY reverse(c.account_number) LIMIT :limit", nativeQuery = true)
+    List<Client> findByAccountNumberSuffix(@Param("reversedPattern") String reversedPattern,
+                                           @Param("limit") int limit);
+
+    /**
+     * Найти клиентов по окончанию номера телефона через индекс idx_clients_phone_number_rev.
+     */
+    @Query(value = "SELECT c.* FROM clients c WHERE reverse(c.phone_number) LIKE :reversedPattern " +
+            "ORDER BY reverse(c.phone_number) LIMIT :limit", nativeQuery = true)
+    List<Client> findByPhoneNumberSuffix(@Param("reversedPattern") String reversedPattern,
+                                         @Param("limit") int limit);
+
     /**
      * Найти клиентов, родившихся в определенном диапазоне дат.
      * Этот метод предпочтительнее для поиска по возрасту.
      */
     List<Client> findByBirthDateBetween(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Строки клиентов, родившихся в диапазоне дат, без загрузки сущностей.
+     */
+    @Query("SELECT " + CLIENT_ROW + " FROM Client c WHERE c.birthDate BETWEEN :startDate AND :endDate")
+    List<ClientRow> findRowsByBirthDateBetween(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
     /**
      * Получить количество клиентов по валютам.
      */
@@ -109,11 +328,61 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT c.nationality, COUNT(c) FROM Client c GROUP BY c.nationality ORDER BY COUNT(c) DESC")
     List<Object[]> countByNationality();
 
+    /**
+     * Количество клиентов по валюте, гражданству, году рождения и признаку «день рождения
+     * (MMDD) не позже monthDay» (1 или 0) — исходные данные куба. Валюта и гражданство — имена констант.
+     */
+    @Query(value = "SELECT c.currency, c.nationality, CAST(EXTRACT(YEAR FROM c.birth_date) AS integer), " +
+            "CASE WHEN to_char(c.birth_date, 'MMDD') <= :monthDay THEN 1 ELSE 0 END, COUNT(*) " +
+            "FROM clients c GROUP BY 1, 2, 3, 4",
+            nativeQuery = true)
+    List<Object[]> countByCurrencyNationalityBirthYearAndBirthday(@Param("monthDay") String monthDay);
+
+    /**
+     * Получить количество клиентов по фамилиям.
+     */
+    @Query("SELECT c.lastName, COUNT(c) FROM Client c GROUP BY c.lastName")
+    List<Object[]> countByLastName();
+
+    /**
+     * Получить количество клиентов по именам.
+     */
+    @Query("SELECT c.firstName, COUNT(c) FROM Client c GROUP BY c.firstName")
+    List<Object[]> countByFirstName();
+
+    /**
+     * Получить количество клиентов по отчествам.
+     */
+    @Query("SELECT c.middleName, COUNT(c) FROM Client c WHERE c.middleName IS NOT NULL GROUP BY c.middleName")
+    List<Object[]> countByMiddleName();
+
+    /**
+     * Поля клиентов для построения индексов в памяти, пачкой по возрастанию ID после afterId.
+     * Порядок колонок: id, lastName, firstName, middleName, accountNumber, phoneNumber.
+     */
+    @Query("SELECT c.id, c.lastName, c.firstName, c.middleName, c.accountNumber, c.phoneNumber " +
+            "FROM Client c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findIndexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Потоковое чтение номеров счетов и телефонов всех клиентов для фильтров уникальности.
+     * Порядок колонок: accountNumber, phoneNumber. Вызывать внутри транзакции и закрывать поток.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT c.accountNumber, c.phoneNumber FROM Client c")
+    Stream<Object[]> streamUniqueKeys();
+
     /**
      * Найти последних 10 зарегистрированных клиентов.
      */
     List<Client> findTop10ByOrderByCreatedAtDesc();
 
+    /**
+     * Строки последних зарегистрированных клиентов; количество задается pageable.
+     */
+    @Query("SELECT " + CLIENT_ROW + " FROM Client c ORDER BY c.createdAt DESC")
+    List<ClientRow> findRecentRows(Pageable pageable);
+
     /**
      * Найти клиентов, обновленных после указанной даты.
      */
@@ -0,0 +1,37 @@
+package com.bank.onlinebank.repository;
+
+import com.bank.onlinebank.dto.ClientRow;
+import com.bank.onlinebank.entity.Client;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запросы по клиентам с проекциями вместо сущностей (Criteria API)
+ */
+public interface ClientRepositoryCustom {
+
+    /**
+     * Страница клиентов по спецификации с выборкой только указанных полей.
+     * Сортировка — по pageable с добавлением id для однозначного порядка.
+     *
+     * @param fields имена атрибутов сущности Client
+     * @return строки вида поле → значение в порядке полей запроса
+     */
+    Slice<Map<String, Object>> findFieldsBy(Specification<Client> spec, List<String> fields, Pageable pageable);
+
+    /**
+     * Страница строк клиентов по спецификации без загрузки сущностей.
+     * Сортировка — по pageable с добавлением id для однозначного порядка.
+     */
+    Slice<ClientRow> findRowsBy(Specification<Client> spec, Pageable pageable);
+
+    /**
+     * Указанные поля клиентов с заданными ID в порядке ID во входном списке
+     */
+    List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, List<String> fields);
+}
@@ -0,0 +1,146 @@
+package com.bank.onlinebank.repository;
+
+import com.bank.onlinebank.dto.ClientRow;
+import com.bank.onlinebank.entity.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация {@link ClientRepositoryCustom}: в SELECT попадают только нужные колонки,
+ * результат не попадает в persistence context
+ */
+public class ClientRepositoryCustomImpl implements ClientRepositoryCustom {
+
+    private static final String ID_ALIAS = "_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Map<String, Object>> findFieldsBy(Specification<Client> spec, List<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Client> root = query.from(Client.class);
+        query.multiselect(selections(root, fields, false));
+
+        Slice<Tuple> tuples = slice(query, root, spec, pageable);
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.getNumberOfElements());
+        for (Tuple tuple : tuples) {
+            rows.add(toRow(tuple, fields));
+        }
+        return new SliceImpl<>(rows, pageable, tuples.hasNext());
+    }
+
+    @Override
+    public Slice<ClientRow> findRowsBy(Specification<Client> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ClientRow> query = cb.createQuery(ClientRow.class);
+        Root<Client> root = query.from(Client.class);
+        query.select(cb.construct(ClientRow.class,
+                root.get("id"), root.get("uniqueId"), root.get("lastName"), root.get("firstName"),
+                root.get("middleName"), root.get("birthDate"), root.get("accountNumber"), root.get("currency"),
+                root.get("nationality"), root.get("phoneNumber"), root.get("createdAt"), root.get("updatedAt"),
+                root.get("version")));
+
+        return slice(query, root, spec, pageable);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, List<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Client> root = query.from(Client.class);
+        query.multiselect(selections(root, fields, true));
+        query.where(root.get("id").in(ids));
+
+        Map<Long, Map<String, Object>> byId = new HashMap<>(ids.size() * 2);
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            byId.put(tuple.get(ID_ALIAS, Long.class), toRow(tuple, fields));
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Map<String, Object> row = byId.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Выполнить запрос как Slice: условие спецификации, сортировка pageable + id, size + 1 строк
+     */
+    private <T> Slice<T> slice(CriteriaQuery<T> query, Root<Client> root, Specification<Client> spec,
+                               Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        if (pageable.getSort().getOrderFor("id") == null) {
+            orders.add(cb.asc(root.get("id")));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+
+        List<T> content = typedQuery.getResultList();
+        boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static List<Selection<?>> selections(Root<Client> root, List<String> fields, boolean withId) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+        if (withId) {
+            selections.add(root.get("id").alias(ID_ALIAS));
+        }
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        for (String field : fields) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
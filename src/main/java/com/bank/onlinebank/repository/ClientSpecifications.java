@@ -0,0 +1,112 @@
+package com.bank.onlinebank.repository;
+
+import com.bank.onlinebank.entity.Client;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.util.ClientCursor;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Спецификации (Criteria API) для динамических запросов по клиентам
+ */
+public final class ClientSpecifications {
+
+    private ClientSpecifications() {
+    }
+
+    /**
+     * Фильтр поиска, повторяющий условия {@link ClientRepository#searchClients}
+     */
+    public static Specification<Client> matchesSearch(String searchTerm, Currency currency, Nationality nationality) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (searchTerm != null && !searchTerm.isEmpty()) {
+                String lowerPattern = "%" + searchTerm.toLowerCase(Locale.ROOT) + "%";
+                String pattern = "%" + searchTerm + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("lastName")), lowerPattern),
+                        cb.like(cb.lower(root.get("firstName")), lowerPattern),
+                        cb.like(cb.lower(root.get("middleName")), lowerPattern),
+                        cb.like(root.get("accountNumber"), pattern),
+                        cb.like(root.get("phoneNumber"), pattern)));
+            }
+            if (currency != null) {
+                predicates.add(cb.equal(root.get("currency"), currency));
+            }
+            if (nationality != null) {
+                predicates.add(cb.equal(root.get("nationality"), nationality));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Фильтр по спискам валют и гражданств (значения одного поля через OR) и диапазону дат рождения;
+     * пустые списки и null — без условия
+     */
+    public static Specification<Client> matchesFilter(Collection<Currency> currencies, Collection<Nationality> nationalities,
+                                                      LocalDate birthFrom, LocalDate birthTo) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (currencies != null && !currencies.isEmpty()) {
+                predicates.add(root.get("currency").in(currencies));
+            }
+            if (nationalities != null && !nationalities.isEmpty()) {
+                predicates.add(root.get("nationality").in(nationalities));
+            }
+            if (birthFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("birthDate"), birthFrom));
+            }
+            if (birthTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("birthDate"), birthTo));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Seek-условие keyset-пагинации: записи строго после позиции курсора.
+     * <p>
+     * Помимо условия {@code key > v OR (key = v AND id > lastId)} добавляется
+     * избыточная граница {@code key >= v}, которую PostgreSQL использует как
+     * условие индекса (поле, id), поэтому стоимость страницы не зависит от её номера.
+     * </p>
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Client> after(ClientCursor cursor) {
+        return (root, query, cb) -> {
+            boolean ascending = cursor.direction() == Sort.Direction.ASC;
+            Path<Long> id = root.get("id");
+
+            if (cursor.sortField() == ClientCursor.SortField.ID) {
+                return ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            }
+
+            Expression<Comparable> key = root.get(cursor.sortField().getProperty());
+            Comparable value = cursor.value();
+
+            if (ascending) {
+                return cb.and(
+                        cb.greaterThanOrEqualTo(key, value),
+                        cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.id())));
+            }
+            return cb.and(
+                    cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(id, cursor.id())));
+        };
+    }
+}
@@ -0,0 +1,445 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Битовый индекс клиентов (Roaring bitmap) по валюте, гражданству и дате рождения.
+ * <p>
+ * Для каждого значения валюты и гражданства, каждого года рождения и каждого дня года
+ * рождения (1–366, по календарю високосного года) хранится множество ID клиентов.
+ * Фильтр по диапазону дат рождения — объединение полных лет, а для крайних лет —
+ * пересечение года с объединением дней, поэтому результат точный до дня. Значения
+ * одного измерения объединяются (OR), разные измерения пересекаются (AND); количество
+ * и упорядоченный по ID список подходящих клиентов получаются без обращения к БД,
+ * а БД нужна только для чтения строк запрошенной страницы.
+ * </p>
+ * <p>
+ * Индекс строится потоковым чтением таблицы и обновляется по {@link ClientChangedEvent};
+ * периодически и после потери изменений других узлов он строится заново. События,
+ * пришедшие во время построения, запоминаются и применяются к новому индексу перед
+ * его публикацией (повторное применение уже прочитанного изменения ничего не меняет). Пока индекс
+ * не построен, методы запроса возвращают null и вызывающий код обращается к БД.
+ * Roaring bitmap хранит int, поэтому при ID больше {@link Integer#MAX_VALUE} индекс отключается.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientBitmapIndex {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final Nationality[] NATIONALITIES = Nationality.values();
+    private static final int DAY_SLOTS = 366;
+    private static final int LEAP_YEAR = 2000;
+
+    private static final String SELECT_COLUMNS = "SELECT id, currency, nationality, birth_date FROM clients";
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+
+    @Value("${app.bitmap-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bitmap-index.fetch-size:10000}")
+    private int fetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Bitmaps bitmaps;
+
+    /**
+     * Изменения, примененные во время построения; изменяются под блокировкой записи
+     */
+    private final ArrayDeque<ClientChangedEvent> changedDuringBuild = new ArrayDeque<>();
+    private boolean building;
+    private boolean lostDuringBuild;
+
+    /**
+     * Множества ID по значениям; изменяются под блокировкой записи.
+     * Видимость пакетная для тестов выборки по датам рождения.
+     */
+    static final class Bitmaps {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap[] byCurrency = newBitmaps(CURRENCIES.length);
+        private final RoaringBitmap[] byNationality = newBitmaps(NATIONALITIES.length);
+        private final RoaringBitmap[] byDayOfYear = newBitmaps(DAY_SLOTS);
+        private final TreeMap<Integer, RoaringBitmap> byBirthYear = new TreeMap<>();
+        private final LocalDateTime builtAt = LocalDateTime.now();
+
+        void add(int id, Currency currency, Nationality nationality, LocalDate birthDate) {
+            all.add(id);
+            byCurrency[currency.ordinal()].add(id);
+            byNationality[nationality.ordinal()].add(id);
+            byDayOfYear[daySlot(birthDate) - 1].add(id);
+            byBirthYear.computeIfAbsent(birthDate.getYear(), year -> new RoaringBitmap()).add(id);
+        }
+
+        private void remove(int id, Currency currency, Nationality nationality, LocalDate birthDate) {
+            all.remove(id);
+            byCurrency[currency.ordinal()].remove(id);
+            byNationality[nationality.ordinal()].remove(id);
+            byDayOfYear[daySlot(birthDate) - 1].remove(id);
+            RoaringBitmap year = byBirthYear.get(birthDate.getYear());
+            if (year != null) {
+                year.remove(id);
+            }
+        }
+
+        private void optimize() {
+            all.runOptimize();
+            for (RoaringBitmap[] bitmaps : List.of(byCurrency, byNationality, byDayOfYear)) {
+                for (RoaringBitmap bitmap : bitmaps) {
+                    bitmap.runOptimize();
+                }
+            }
+            byBirthYear.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        private long sizeInBytes() {
+            long bytes = all.getLongSizeInBytes();
+            for (RoaringBitmap[] bitmaps : List.of(byCurrency, byNationality, byDayOfYear)) {
+                for (RoaringBitmap bitmap : bitmaps) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+            }
+            for (RoaringBitmap bitmap : byBirthYear.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Построение индекса при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildQuietly();
+    }
+
+    /**
+     * Построение индекса, если он сброшен (потеря изменений, ID вне диапазона int)
+     */
+    @Scheduled(initialDelayString = "${app.bitmap-index.retry-interval:30s}",
+            fixedDelayString = "${app.bitmap-index.retry-interval:30s}")
+    public void buildIfMissing() {
+        if (bitmaps == null) {
+            rebuildQuietly();
+        }
+    }
+
+    /**
+     * Периодическое перестроение для сверки с БД
+     */
+    @Scheduled(initialDelayString = "${app.bitmap-index.rebuild-interval:15m}",
+            fixedDelayString = "${app.bitmap-index.rebuild-interval:15m}")
+    public void rebuildQuietly() {
+        if (!enabled || !databaseHealthIndicator.isHealthy()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Ошибка при построении битового индекса клиентов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * ID клиентов, подходящих под фильтры (null или пустая коллекция, null дата — без фильтра),
+     * в порядке возрастания; null, если индекс не построен
+     */
+    public RoaringBitmap match(Collection<Currency> currencies, Collection<Nationality> nationalities,
+                               LocalDate birthFrom, LocalDate birthTo) {
+        lock.readLock().lock();
+        try {
+            Bitmaps current = bitmaps;
+            if (current == null) {
+                return null;
+            }
+            RoaringBitmap ids = select(current, currencies, nationalities, birthFrom, birthTo);
+            return ids == current.all ? ids.clone() : ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество клиентов, подходящих под фильтры; -1, если индекс не построен
+     */
+    public long count(Collection<Currency> currencies, Collection<Nationality> nationalities,
+                      LocalDate birthFrom, LocalDate birthTo) {
+        lock.readLock().lock();
+        try {
+            Bitmaps current = bitmaps;
+            return current != null ?
+                    select(current, currencies, nationalities, birthFrom, birthTo).getLongCardinality() : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Время последнего полного построения индекса; null, если индекс не построен
+     */
+    public LocalDateTime builtAt() {
+        Bitmaps current = bitmaps;
+        return current != null ? current.builtAt : null;
+    }
+
+    /**
+     * Применение изменения клиента после коммита
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(event);
+            }
+            Bitmaps current = bitmaps;
+            if (current != null && !apply(current, event)) {
+                bitmaps = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Изменения других узлов могли быть пропущены: индекс строится заново
+     */
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        lock.writeLock().lock();
+        try {
+            bitmaps = null;
+            // Строящийся индекс мог прочитать таблицу до пропущенных изменений
+            lostDuringBuild |= building;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применить изменение к индексу; false, если ID не помещается в int и индекс нужно отключить
+     */
+    private static boolean apply(Bitmaps target, ClientChangedEvent event) {
+        if (event.clientId() > Integer.MAX_VALUE) {
+            log.warn("ID клиента {} не помещается в битовый индекс, индекс отключен", event.clientId());
+            return false;
+        }
+        if (event.previous() != null) {
+            remove(target, event.previous());
+        }
+        if (event.current() != null) {
+            add(target, event.current());
+        }
+        return true;
+    }
+
+    /**
+     * Подмножество индекса под фильтры; при отсутствии фильтров — само множество всех ID
+     */
+    private static RoaringBitmap select(Bitmaps current, Collection<Currency> currencies,
+                                        Collection<Nationality> nationalities, LocalDate birthFrom, LocalDate birthTo) {
+        List<RoaringBitmap> dimensions = new ArrayList<>(3);
+
+        if (currencies != null && !currencies.isEmpty()) {
+            dimensions.add(or(currencies.stream()
+                    .map(currency -> current.byCurrency[currency.ordinal()])
+                    .toArray(RoaringBitmap[]::new)));
+        }
+        if (nationalities != null && !nationalities.isEmpty()) {
+            dimensions.add(or(nationalities.stream()
+                    .map(nationality -> current.byNationality[nationality.ordinal()])
+                    .toArray(RoaringBitmap[]::new)));
+        }
+        if (birthFrom != null || birthTo != null) {
+            dimensions.add(birthRange(current, birthFrom, birthTo));
+        }
+
+        if (dimensions.isEmpty()) {
+            return current.all;
+        }
+        return dimensions.size() == 1 ?
+                dimensions.get(0) : FastAggregation.and(dimensions.toArray(RoaringBitmap[]::new));
+    }
+
+    /**
+     * Клиенты с датой рождения в [from, to]: полные годы целиком, крайние — по дням года
+     */
+    static RoaringBitmap birthRange(Bitmaps current, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return new RoaringBitmap();
+        }
+
+        int fromYear = from != null ? from.getYear() : Integer.MIN_VALUE;
+        int toYear = to != null ? to.getYear() : Integer.MAX_VALUE;
+        List<RoaringBitmap> years = new ArrayList<>();
+
+        for (Map.Entry<Integer, RoaringBitmap> entry : current.byBirthYear.subMap(fromYear, true, toYear, true).entrySet()) {
+            int firstSlot = entry.getKey() == fromYear ? daySlot(from) : 1;
+            int lastSlot = entry.getKey() == toYear ? daySlot(to) : DAY_SLOTS;
+            if (firstSlot == 1 && lastSlot == DAY_SLOTS) {
+                years.add(entry.getValue());
+            } else {
+                RoaringBitmap days = or(Arrays.copyOfRange(current.byDayOfYear, firstSlot - 1, lastSlot));
+                years.add(RoaringBitmap.and(entry.getValue(), days));
+            }
+        }
+
+        return years.isEmpty() ? new RoaringBitmap() : or(years.toArray(RoaringBitmap[]::new));
+    }
+
+    /**
+     * Объединение в новое множество: хранимые множества индекса наружу не отдаются
+     */
+    private static RoaringBitmap or(RoaringBitmap[] bitmaps) {
+        return bitmaps.length == 1 ? bitmaps[0].clone() : FastAggregation.or(bitmaps);
+    }
+
+    /**
+     * Номер дня года рождения 1–366 по календарю високосного года: порядок дней внутри
+     * любого года сохраняется, 29 февраля получает собственный номер
+     */
+    private static int daySlot(LocalDate date) {
+        return LocalDate.of(LEAP_YEAR, date.getMonth(), date.getDayOfMonth()).getDayOfYear();
+    }
+
+    private static RoaringBitmap[] newBitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        return bitmaps;
+    }
+
+    private static void add(Bitmaps target, ClientDTO client) {
+        target.add(client.getId().intValue(), client.getCurrency(), client.getNationality(), client.getBirthDate());
+    }
+
+    private static void remove(Bitmaps target, ClientDTO client) {
+        target.remove(client.getId().intValue(), client.getCurrency(), client.getNationality(), client.getBirthDate());
+    }
+
+    /**
+     * Построить индекс и применить к нему изменения, закоммиченные во время чтения таблицы
+     */
+    private synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild.clear();
+            lostDuringBuild = false;
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bitmaps built;
+        try {
+            built = readOnlyTransaction.execute(status -> load());
+        } catch (RuntimeException e) {
+            finishBuild();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Изменения, закоммиченные до начала чтения, уже в индексе: повторное применение
+            // удаляет прежние значения и добавляет текущие, результат тот же
+            for (ClientChangedEvent event = changedDuringBuild.poll(); event != null && built != null;
+                 event = changedDuringBuild.poll()) {
+                if (!apply(built, event)) {
+                    built = null;
+                }
+            }
+            if (built != null && lostDuringBuild) {
+                log.debug("Во время построения битового индекса пропущены изменения других узлов, индекс будет построен заново");
+                built = null;
+            }
+            bitmaps = built;
+        } finally {
+            finishBuild();
+            lock.writeLock().unlock();
+        }
+
+        if (built != null) {
+            log.debug("Битовый индекс клиентов построен: {} клиентов, {} КБ, за {} мс",
+                    built.all.getLongCardinality(), built.sizeInBytes() / 1024, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void finishBuild() {
+        lock.writeLock().lock();
+        try {
+            building = false;
+            changedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Bitmaps load() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM clients", Long.class);
+        if (maxId != null && maxId > Integer.MAX_VALUE) {
+            log.warn("ID клиентов превышают диапазон int, битовый индекс не строится");
+            return null;
+        }
+
+        Bitmaps built = new Bitmaps();
+        jdbcTemplate.query(SELECT_COLUMNS, (RowCallbackHandler) rs -> built.add(
+                rs.getInt(1),
+                Currency.valueOf(rs.getString(2)),
+                Nationality.valueOf(rs.getString(3)),
+                rs.getObject(4, LocalDate.class)));
+        built.optimize();
+        return built;
+    }
+}
@@ -0,0 +1,425 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientCubeDTO;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.dto.CubeCellDTO;
+import com.bank.onlinebank.enums.CubeDimension;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.Region;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.bank.onlinebank.exception.DatabaseUnavailableException;
+import com.bank.onlinebank.repository.ClientRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Куб клиентов: валюта × гражданство × год рождения × «день рождения уже был».
+ * <p>
+ * Строится одним запросом с GROUP BY и хранится плотным массивом счетчиков
+ * ({@link AtomicLongArray}), после чего обновляется по {@link ClientChangedEvent} без обращения к БД.
+ * Клиенты каждого года рождения разделены на тех, у кого день рождения приходится на дату
+ * построения куба или раньше в году, и остальных, поэтому возраст — полных лет на дату
+ * построения, как в {@link ClientService#getClientsByAge}, {@link ClientService#filterClients}
+ * и {@link ClientColumnarService}. С наступлением следующего дня куб перестраивается.
+ * Регион (СНГ/ЕС/прочие) — укрупнение гражданства. Любой срез и разбивка считаются
+ * обходом массива, размер которого не зависит от числа клиентов.
+ * </p>
+ * <p>
+ * Куб строится только в фоне: при старте, периодически для сверки с БД, а также после потери
+ * изменений других узлов или выхода года рождения за построенный диапазон. До замены запросы
+ * обслуживает прежний куб; пока куба нет, запрос завершается ошибкой, а не читает таблицу.
+ * События, пришедшие во время построения, запоминаются и применяются к новому кубу перед
+ * публикацией. Запоминание начинается до снимка транзакции построения, поэтому изменение,
+ * закоммиченное в момент его начала, может быть учтено дважды; такое расхождение
+ * исправляет следующее периодическое перестроение.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientCubeService {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final Nationality[] NATIONALITIES = Nationality.values();
+
+    private final ClientRepository clientRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+
+    @Value("${app.cube.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cube.age-buckets:18,25,35,45,55,65}")
+    private int[] ageBuckets;
+
+    @Value("${app.cube.max-age:120}")
+    private int maxClientAge;
+
+    private TransactionTemplate snapshotTransaction;
+
+    private volatile Cube cube;
+
+    /**
+     * Куб мог разойтись с БД (потеря изменений, год рождения вне диапазона) и ждет перестроения
+     */
+    private volatile boolean stale;
+
+    /**
+     * Изменения, пришедшие во время построения; изменяются под changeLock
+     */
+    private final Object changeLock = new Object();
+    private final ArrayDeque<ClientChangedEvent> changedDuringBuild = new ArrayDeque<>();
+    private boolean building;
+    private boolean lostDuringBuild;
+
+    /**
+     * Ключ ячейки результата; измерения без группировки — null (для возрастной группы — -1)
+     */
+    private record CellKey(Currency currency, Nationality nationality, Region region, int ageBucket) {}
+
+    private static final Comparator<CellKey> CELL_ORDER =
+            Comparator.comparing(CellKey::currency, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(CellKey::nationality, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(CellKey::region, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparingInt(CellKey::ageBucket);
+
+    /**
+     * Плотный массив счетчиков [валюта][гражданство][год рождения - minYear][день рождения уже был]
+     */
+    private static final class Cube {
+
+        private final int minYear;
+        private final int years;
+        private final LocalDate asOf;
+        private final String asOfMonthDay;
+        private final AtomicLongArray counts;
+        private final LocalDateTime builtAt = LocalDateTime.now();
+
+        private Cube(int minYear, LocalDate asOf) {
+            this.minYear = minYear;
+            this.years = asOf.getYear() - minYear + 1;
+            this.asOf = asOf;
+            this.asOfMonthDay = monthDay(asOf);
+            this.counts = new AtomicLongArray(CURRENCIES.length * NATIONALITIES.length * years * 2);
+        }
+
+        private int index(Currency currency, Nationality nationality, int year, boolean birthdayPassed) {
+            int cell = (currency.ordinal() * NATIONALITIES.length + nationality.ordinal()) * years + (year - minYear);
+            return cell * 2 + (birthdayPassed ? 1 : 0);
+        }
+
+        /**
+         * Полных лет на дату построения
+         */
+        private int age(int year, boolean birthdayPassed) {
+            return asOf.getYear() - year - (birthdayPassed ? 0 : 1);
+        }
+
+        /**
+         * Учесть клиента; false, если год рождения вне построенного диапазона
+         */
+        private boolean add(ClientDTO client, long delta) {
+            LocalDate birthDate = client.getBirthDate();
+            int year = birthDate.getYear();
+            if (year < minYear || year >= minYear + years) {
+                return false;
+            }
+            boolean birthdayPassed = monthDay(birthDate).compareTo(asOfMonthDay) <= 0;
+            counts.addAndGet(index(client.getCurrency(), client.getNationality(), year, birthdayPassed), delta);
+            return true;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < ageBuckets.length; i++) {
+            if (ageBuckets[i] <= (i == 0 ? 0 : ageBuckets[i - 1])) {
+                throw new IllegalArgumentException("Границы возрастных групп app.cube.age-buckets должны быть положительными и возрастать");
+            }
+        }
+        // Построение и применение пришедших за это время событий опираются на один снимок таблицы
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Построение куба при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildQuietly();
+    }
+
+    /**
+     * Построение куба, если его нет, он мог разойтись с БД или возраст в нем посчитан на прошедшую дату
+     */
+    @Scheduled(initialDelayString = "${app.cube.retry-interval:30s}",
+            fixedDelayString = "${app.cube.retry-interval:30s}")
+    public void buildIfMissing() {
+        Cube current = cube;
+        if (current == null || stale || !current.asOf.equals(LocalDate.now())) {
+            rebuildQuietly();
+        }
+    }
+
+    /**
+     * Периодическое перестроение для сверки с БД
+     */
+    @Scheduled(initialDelayString = "${app.cube.rebuild-interval:15m}",
+            fixedDelayString = "${app.cube.rebuild-interval:15m}")
+    public void rebuildQuietly() {
+        if (!enabled || !databaseHealthIndicator.isHealthy()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Ошибка при построении куба клиентов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Срез куба: фильтры по валюте, гражданству, региону и возрасту (null или пустые — без фильтра)
+     * и разбивка по выбранным измерениям. Возраст — полных лет на дату построения куба.
+     * Пока куб не построен, выбрасывается {@link DatabaseUnavailableException}.
+     */
+    public ClientCubeDTO query(List<CubeDimension> groupBy, Collection<Currency> currencies,
+                               Collection<Nationality> nationalities, Collection<Region> regions,
+                               Integer minAge, Integer maxAge) {
+        if (!enabled) {
+            throw new IllegalStateException("Куб клиентов отключен (app.cube.enabled=false)");
+        }
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException("Минимальный возраст не может быть больше максимального");
+        }
+
+        Cube current = cube;
+        if (current == null) {
+            throw new DatabaseUnavailableException("Куб клиентов еще не построен");
+        }
+
+        Set<CubeDimension> dimensions = groupBy == null || groupBy.isEmpty() ?
+                EnumSet.noneOf(CubeDimension.class) : EnumSet.copyOf(groupBy);
+        Set<Currency> currencyFilter = currencies == null || currencies.isEmpty() ?
+                EnumSet.allOf(Currency.class) : EnumSet.copyOf(currencies);
+        Set<Nationality> nationalityFilter = nationalities == null || nationalities.isEmpty() ?
+                EnumSet.allOf(Nationality.class) : EnumSet.copyOf(nationalities);
+        Set<Region> regionFilter = regions == null || regions.isEmpty() ?
+                EnumSet.allOf(Region.class) : EnumSet.copyOf(regions);
+
+        int asOfYear = current.asOf.getYear();
+        // Годы рождения, в которых есть клиенты нужного возраста; точная граница — по дню рождения
+        int fromYear = Math.max(current.minYear, maxAge != null ? asOfYear - maxAge - 1 : Integer.MIN_VALUE);
+        int toYear = Math.min(current.minYear + current.years - 1, minAge != null ? asOfYear - minAge : Integer.MAX_VALUE);
+
+        Map<CellKey, Long> cells = new HashMap<>();
+        long total = 0;
+
+        for (Currency currency : CURRENCIES) {
+            if (!currencyFilter.contains(currency)) {
+                continue;
+            }
+            for (Nationality nationality : NATIONALITIES) {
+                Region region = Region.of(nationality);
+                if (!nationalityFilter.contains(nationality) || !regionFilter.contains(region)) {
+                    continue;
+                }
+                for (int year = fromYear; year <= toYear; year++) {
+                    for (boolean birthdayPassed : new boolean[]{false, true}) {
+                        int age = current.age(year, birthdayPassed);
+                        if ((minAge != null && age < minAge) || (maxAge != null && age > maxAge)) {
+                            continue;
+                        }
+                        long count = current.counts.get(current.index(currency, nationality, year, birthdayPassed));
+                        if (count == 0) {
+                            continue;
+                        }
+                        CellKey key = new CellKey(
+                                dimensions.contains(CubeDimension.CURRENCY) ? currency : null,
+                                dimensions.contains(CubeDimension.NATIONALITY) ? nationality : null,
+                                dimensions.contains(CubeDimension.REGION) ? region : null,
+                                dimensions.contains(CubeDimension.AGE_BUCKET) ? ageBucket(age) : -1);
+                        cells.merge(key, count, Long::sum);
+                        total += count;
+                    }
+                }
+            }
+        }
+
+        List<CellKey> keys = new ArrayList<>(cells.keySet());
+        keys.sort(CELL_ORDER);
+        List<CubeCellDTO> result = new ArrayList<>(keys.size());
+        for (CellKey key : keys) {
+            result.add(CubeCellDTO.builder()
+                    .currency(key.currency())
+                    .nationality(key.nationality())
+                    .region(key.region())
+                    .ageBucket(key.ageBucket() >= 0 ? ageBucketLabel(key.ageBucket()) : null)
+                    .count(cells.get(key))
+                    .build());
+        }
+
+        return ClientCubeDTO.builder()
+                .groupBy(List.copyOf(dimensions))
+                .total(total)
+                .cells(result)
+                .builtAt(current.builtAt)
+                .ageAsOf(current.asOf)
+                .build();
+    }
+
+    /**
+     * Применение изменения клиента после коммита
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        Cube current;
+        synchronized (changeLock) {
+            if (building) {
+                changedDuringBuild.add(event);
+            }
+            current = cube;
+        }
+        if (current != null && !apply(current, event)) {
+            log.debug("Год рождения клиента {} вне диапазона куба, куб будет перестроен", event.clientId());
+            stale = true;
+        }
+    }
+
+    /**
+     * Изменения других узлов могли быть пропущены: куб строится заново в фоне,
+     * до замены запросы обслуживает прежний
+     */
+    @Async
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        synchronized (changeLock) {
+            stale = true;
+            // Строящийся куб мог прочитать таблицу до пропущенных изменений
+            lostDuringBuild |= building;
+        }
+        rebuildQuietly();
+    }
+
+    /**
+     * Учесть изменение в кубе; false, если год рождения вне построенного диапазона
+     */
+    private static boolean apply(Cube target, ClientChangedEvent event) {
+        boolean applied = true;
+        if (event.previous() != null) {
+            applied = target.add(event.previous(), -1);
+        }
+        if (event.current() != null) {
+            applied &= target.add(event.current(), 1);
+        }
+        return applied;
+    }
+
+    /**
+     * Построить куб одним GROUP BY и применить к нему изменения, закоммиченные во время чтения
+     */
+    private synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        synchronized (changeLock) {
+            building = true;
+            lostDuringBuild = false;
+            changedDuringBuild.clear();
+        }
+        try {
+            Cube built = snapshotTransaction.execute(status -> load());
+
+            int replayed;
+            synchronized (changeLock) {
+                replayed = changedDuringBuild.size();
+                boolean applied = true;
+                for (ClientChangedEvent event : changedDuringBuild) {
+                    applied &= apply(built, event);
+                }
+                cube = built;
+                stale = lostDuringBuild || !applied;
+            }
+
+            log.debug("Куб клиентов построен: {} годов рождения с {}, за {} мс, применено изменений: {}",
+                    built.years, built.minYear, System.currentTimeMillis() - startTime, replayed);
+        } finally {
+            synchronized (changeLock) {
+                building = false;
+                changedDuringBuild.clear();
+            }
+        }
+    }
+
+    private Cube load() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = clientRepository.countByCurrencyNationalityBirthYearAndBirthday(monthDay(today));
+
+        int minYear = today.getYear() - maxClientAge;
+        for (Object[] row : rows) {
+            minYear = Math.min(minYear, ((Number) row[2]).intValue());
+        }
+
+        Cube built = new Cube(minYear, today);
+        for (Object[] row : rows) {
+            int year = ((Number) row[2]).intValue();
+            if (year > today.getYear()) {
+                continue; // дата рождения в будущем запрещена ограничением таблицы
+            }
+            int index = built.index(Currency.valueOf((String) row[0]), Nationality.valueOf((String) row[1]),
+                    year, ((Number) row[3]).intValue() == 1);
+            built.counts.addAndGet(index, ((Number) row[4]).longValue());
+        }
+        return built;
+    }
+
+    /**
+     * Месяц и день в виде MMDD: сравнение строк совпадает с порядком дней в году,
+     * 29 февраля в невисокосном году наступает вместе с 1 марта, как в {@link LocalDate#minusYears}
+     */
+    private static String monthDay(LocalDate date) {
+        return String.format("%02d%02d", date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    private int ageBucket(int age) {
+        int bucket = 0;
+        while (bucket < ageBuckets.length && age >= ageBuckets[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private String ageBucketLabel(int bucket) {
+        if (bucket == ageBuckets.length) {
+            return ageBuckets.length == 0 ? "0+" : ageBuckets[bucket - 1] + "+";
+        }
+        int from = bucket == 0 ? 0 : ageBuckets[bucket - 1];
+        return from + "-" + (ageBuckets[bucket] - 1);
+    }
+}
@@ -0,0 +1,333 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.bank.onlinebank.repository.ClientRepository;
+import com.bank.onlinebank.util.FuzzyIndex;
+import com.bank.onlinebank.util.PrefixIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Нечеткий (устойчивый к опечаткам) поиск клиентов по индексу в памяти.
+ * <p>
+ * Индексируются слова ФИО, номера счетов и телефонов. Индекс строится пачками из БД
+ * при старте и далее обновляется по {@link ClientChangedEvent} после коммита записи.
+ * События, пришедшие во время загрузки, запоминаются и применяются к новому индексу
+ * перед его публикацией: запись, закоммиченная после чтения своей пачки, не теряется,
+ * а повторное применение уже прочитанного изменения ничего не меняет.
+ * Размер индекса и задержка обновления публикуются в Micrometer:
+ * {@code search.fuzzy.index.terms}, {@code search.fuzzy.index.postings},
+ * {@code search.fuzzy.index.refresh.lag}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientFuzzySearchService {
+
+    private static final int MAX_EDITS = 2;
+    private static final int MAX_NUMBER_EDITS = 1;
+    private static final int MAX_TERMS_PER_TOKEN = 1000;
+
+    private final ClientRepository clientRepository;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.search.fuzzy.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.fuzzy.index-numbers:true}")
+    private boolean indexNumbers;
+
+    @Value("${app.search.fuzzy.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private volatile FuzzyIndex index = new FuzzyIndex();
+    private volatile boolean loaded = false;
+
+    /**
+     * Изменения, пришедшие во время загрузки; флаги и очередь меняются под changeLock
+     */
+    private final Object changeLock = new Object();
+    private final ArrayDeque<ClientChangedEvent> changedDuringLoad = new ArrayDeque<>();
+    private boolean loading;
+    private boolean lostDuringLoad;
+
+    private Timer refreshLag;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("search.fuzzy.index.terms", this, service -> service.index.termCount())
+                .description("Number of distinct terms in the fuzzy client index")
+                .register(meterRegistry);
+        Gauge.builder("search.fuzzy.index.postings", this, service -> service.index.postingCount())
+                .description("Number of term-to-client postings in the fuzzy client index")
+                .register(meterRegistry);
+        refreshLag = Timer.builder("search.fuzzy.index.refresh.lag")
+                .description("Delay between a client write and its visibility in the fuzzy index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Построение индекса при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (!databaseHealthIndicator.isHealthy()) {
+            log.warn("База данных недоступна. Индекс нечеткого поиска будет построен при первом запросе");
+            return;
+        }
+        ensureLoaded();
+    }
+
+    /**
+     * ID клиентов, найденных нечетким поиском, в порядке релевантности.
+     * <p>
+     * Каждое слово запроса ищется с допуском по числу правок (по умолчанию 0 для слов
+     * до 2 символов, 1 — до 5, иначе 2; для номеров не более 1, так как в плотном
+     * пространстве цифр две правки раскрывают слишком большую часть дерева); клиент
+     * должен совпасть со всеми словами, ранжирование — по сумме расстояний, затем по ID.
+     * </p>
+     *
+     * @param maxEdits допустимое число правок на слово или null для автоматического выбора
+     */
+    public List<Long> search(String query, Integer maxEdits, int limit) {
+        if (!enabled) {
+            throw new IllegalStateException("Нечеткий поиск отключен");
+        }
+        if (maxEdits != null && (maxEdits < 0 || maxEdits > MAX_EDITS)) {
+            throw new IllegalArgumentException("Допустимое число правок должно быть от 0 до " + MAX_EDITS);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Лимит должен быть больше нуля");
+        }
+
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        ensureLoaded();
+
+        FuzzyIndex current = index;
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            int edits = Math.min(maxEdits != null ? maxEdits : autoEdits(token),
+                    isNumber(token) ? MAX_NUMBER_EDITS : MAX_EDITS);
+
+            // Лучшее расстояние для каждого клиента по этому слову
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            for (FuzzyIndex.Match match : current.search(token, edits, MAX_TERMS_PER_TOKEN)) {
+                for (long id : match.ids()) {
+                    tokenScores.merge(id, match.distance(), Math::min);
+                }
+            }
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                Map<Long, Integer> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : tokenScores.entrySet()) {
+                    Integer score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Количество различных терминов в индексе
+     */
+    public int getIndexSize() {
+        return index.termCount();
+    }
+
+    /**
+     * Обновление индекса после коммита изменения клиента
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        FuzzyIndex current;
+        synchronized (changeLock) {
+            if (loading) {
+                changedDuringLoad.add(event);
+            }
+            if (!loaded) {
+                return; // до начала загрузки изменение уже закоммичено и будет прочитано из БД
+            }
+            current = index;
+        }
+
+        apply(current, event);
+        if (event.current() != null) {
+            LocalDateTime writtenAt = event.current().getUpdatedAt();
+            if (writtenAt != null) {
+                Duration lag = Duration.between(writtenAt, LocalDateTime.now());
+                refreshLag.record(lag.isNegative() ? Duration.ZERO : lag);
+            }
+        }
+    }
+
+    /**
+     * Изменения других узлов могли быть пропущены: индекс перестроится из БД при следующем запросе
+     */
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        synchronized (changeLock) {
+            loaded = false;
+            // Идущая загрузка могла прочитать таблицу до пропущенных изменений
+            lostDuringLoad |= loading;
+        }
+    }
+
+    private void apply(FuzzyIndex target, ClientChangedEvent event) {
+        if (event.previous() != null) {
+            for (String term : terms(event.previous())) {
+                target.remove(term, event.previous().getId());
+            }
+        }
+        if (event.current() != null) {
+            for (String term : terms(event.current())) {
+                target.add(term, event.current().getId());
+            }
+        }
+    }
+
+    /**
+     * Загрузка индекса из БД, если он еще не построен
+     */
+    private void ensureLoaded() {
+        if (loaded || !databaseHealthIndicator.isHealthy()) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            synchronized (changeLock) {
+                changedDuringLoad.clear();
+                lostDuringLoad = false;
+                loading = true;
+            }
+            try {
+                long startTime = System.currentTimeMillis();
+
+                FuzzyIndex newIndex = new FuzzyIndex();
+                long lastId = 0;
+                long clients = 0;
+                while (true) {
+                    List<Object[]> rows = clientRepository.findIndexRowsAfter(lastId, PageRequest.of(0, loadBatchSize));
+                    if (rows.isEmpty()) {
+                        break;
+                    }
+                    for (Object[] row : rows) {
+                        long id = (Long) row[0];
+                        for (String term : terms((String) row[1], (String) row[2], (String) row[3],
+                                (String) row[4], (String) row[5])) {
+                            newIndex.add(term, id);
+                        }
+                        lastId = id;
+                    }
+                    clients += rows.size();
+                }
+
+                synchronized (changeLock) {
+                    for (ClientChangedEvent event = changedDuringLoad.poll(); event != null;
+                         event = changedDuringLoad.poll()) {
+                        apply(newIndex, event);
+                    }
+                    index = newIndex;
+                    loaded = !lostDuringLoad;
+                }
+
+                log.info("Индекс нечеткого поиска построен: {} клиентов, {} терминов за {} мс",
+                        clients, newIndex.termCount(), System.currentTimeMillis() - startTime);
+            } catch (Exception e) {
+                log.error("Ошибка при построении индекса нечеткого поиска: {}", e.getMessage());
+            } finally {
+                synchronized (changeLock) {
+                    loading = false;
+                    changedDuringLoad.clear();
+                }
+            }
+        }
+    }
+
+    private List<String> terms(ClientDTO client) {
+        return terms(client.getLastName(), client.getFirstName(), client.getMiddleName(),
+                client.getAccountNumber(), client.getPhoneNumber());
+    }
+
+    private List<String> terms(String lastName, String firstName, String middleName,
+                               String accountNumber, String phoneNumber) {
+        List<String> terms = new ArrayList<>(5);
+        terms.addAll(tokenize(lastName));
+        terms.addAll(tokenize(firstName));
+        terms.addAll(tokenize(middleName));
+        if (indexNumbers) {
+            terms.addAll(tokenize(accountNumber));
+            terms.addAll(tokenize(phoneNumber));
+        }
+        return terms;
+    }
+
+    /**
+     * Разбиение на слова: нормализация как у автодополнения, разделители — все, кроме букв и цифр
+     */
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(PrefixIndex.normalize(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isNumber(String token) {
+        return token.chars().allMatch(Character::isDigit);
+    }
+
+    private static int autoEdits(String token) {
+        if (token.length() <= 2) {
+            return 0;
+        }
+        return token.length() <= 5 ? 1 : MAX_EDITS;
+    }
+}
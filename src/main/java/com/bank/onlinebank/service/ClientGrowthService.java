@@ -0,0 +1,198 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientGrowthDTO;
+import com.bank.onlinebank.dto.GrowthPointDTO;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.GrowthGroupBy;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.TimeGranularity;
+import com.bank.onlinebank.repository.ClientGrowthRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Временной ряд регистраций клиентов по дням, неделям и месяцам.
+ * <p>
+ * Закрытые дни (до вчерашнего включительно) хранятся в client_growth_daily в разрезе
+ * валюты и гражданства. Периодическая задача досчитывает только дни после водяного знака
+ * (и последние {@code recompute-days} дней — для записей, закоммиченных после полуночи),
+ * блоками в отдельных транзакциях под advisory-блокировкой, чтобы узлы не считали одно и то же.
+ * Запрос ряда читает агрегаты, а дни после водяного знака (обычно только сегодняшний)
+ * досчитывает по clients диапазоном по created_at.
+ * </p>
+ * <p>
+ * Агрегаты считают регистрации: удаление клиента не уменьшает счет уже закрытого дня.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientGrowthService {
+
+    private final ClientGrowthRepository growthRepository;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.growth.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.growth.batch-days:31}")
+    private int batchDays;
+
+    @Value("${app.growth.recompute-days:1}")
+    private int recomputeDays;
+
+    @Value("${app.growth.max-range-days:3660}")
+    private long maxRangeDays;
+
+    /**
+     * Ключ точки ряда для слияния агрегатов и досчета по clients
+     */
+    private record PointKey(LocalDate period, Currency currency, Nationality nationality) {}
+
+    /**
+     * Досчет агрегатов при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rollupOnStartup() {
+        rollupClosedDays();
+    }
+
+    /**
+     * Досчет агрегатов за закрытые дни после водяного знака
+     */
+    @Scheduled(cron = "${app.growth.rollup-cron:0 5 * * * *}")
+    public void rollupClosedDays() {
+        if (!enabled) {
+            return;
+        }
+        if (!databaseHealthIndicator.isHealthy()) {
+            log.debug("База данных недоступна, досчет агрегатов регистраций пропущен");
+            return;
+        }
+
+        try {
+            rollup();
+        } catch (Exception e) {
+            log.error("Ошибка при досчете агрегатов регистраций клиентов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Получить ряд регистраций за дни [from, to]
+     */
+    public ClientGrowthDTO getGrowth(LocalDate from, LocalDate to, TimeGranularity granularity,
+                                     GrowthGroupBy groupBy, Currency currency, Nationality nationality) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Начало периода не может быть позже конца");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Период не может превышать " + maxRangeDays + " дней");
+        }
+
+        log.debug("Получение ряда регистраций: {} - {}, шаг {}, разбивка {}", from, to, granularity, groupBy);
+
+        Optional<LocalDate> watermark = growthRepository.findWatermark();
+        Map<PointKey, Long> points = new LinkedHashMap<>();
+
+        LocalDate liveFrom = from;
+        if (watermark.isPresent() && !from.isAfter(watermark.get())) {
+            LocalDate rollupTo = to.isBefore(watermark.get()) ? to : watermark.get();
+            merge(points, growthRepository.sumRollup(from, rollupTo, granularity, groupBy, currency, nationality));
+            liveFrom = rollupTo.plusDays(1);
+        }
+        if (!liveFrom.isAfter(to)) {
+            merge(points, growthRepository.sumLive(liveFrom, to, granularity, groupBy, currency, nationality));
+        }
+
+        List<GrowthPointDTO> series = new ArrayList<>(points.size());
+        points.forEach((key, registrations) -> series.add(GrowthPointDTO.builder()
+                .period(key.period())
+                .currency(key.currency())
+                .nationality(key.nationality())
+                .registrations(registrations)
+                .build()));
+        series.sort(Comparator.comparing(GrowthPointDTO::getPeriod)
+                .thenComparing(GrowthPointDTO::getCurrency, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(GrowthPointDTO::getNationality, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        return ClientGrowthDTO.builder()
+                .from(from)
+                .to(to)
+                .granularity(granularity)
+                .groupBy(groupBy)
+                .rolledUpThrough(watermark.orElse(null))
+                .points(series)
+                .build();
+    }
+
+    private void rollup() {
+        LocalDate today = LocalDate.now();
+        Optional<LocalDate> watermark = growthRepository.findWatermark();
+
+        LocalDate from;
+        if (watermark.isPresent()) {
+            from = watermark.get().plusDays(1).minusDays(recomputeDays);
+        } else {
+            Optional<LocalDate> first = growthRepository.findFirstRegistrationDay();
+            if (first.isEmpty()) {
+                return;
+            }
+            from = first.get();
+        }
+
+        long startTime = System.currentTimeMillis();
+        int rows = 0;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        while (from.isBefore(today)) {
+            LocalDate batchFrom = from;
+            LocalDate batchTo = from.plusDays(batchDays).isBefore(today) ? from.plusDays(batchDays) : today;
+
+            Integer written = transactionTemplate.execute(status -> {
+                if (!growthRepository.tryLockRollup()) {
+                    return null;
+                }
+                int count = growthRepository.rollup(batchFrom, batchTo);
+                growthRepository.saveWatermark(batchTo.minusDays(1));
+                return count;
+            });
+            if (written == null) {
+                log.debug("Агрегаты регистраций досчитывает другой узел");
+                return;
+            }
+
+            rows += written;
+            from = batchTo;
+        }
+
+        if (rows > 0) {
+            log.info("Агрегаты регистраций досчитаны по {}: {} строк за {} мс",
+                    today.minusDays(1), rows, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private static void merge(Map<PointKey, Long> points, List<GrowthPointDTO> series) {
+        for (GrowthPointDTO point : series) {
+            points.merge(new PointKey(point.getPeriod(), point.getCurrency(), point.getNationality()),
+                    point.getRegistrations(), Long::sum);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.dto.HotKeyDTO;
+import com.bank.onlinebank.enums.ClientKeyType;
+import com.bank.onlinebank.util.CountMinSketch;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Поиск «горячих» ключей при запросах клиента по ID, номеру счета и уникальному ID.
+ * <p>
+ * Для каждого типа ключа частоты считаются Count-Min Sketch в окнах фиксированной длины,
+ * а кандидаты в лидеры держатся в min-куче на top-k элементов, поэтому память не зависит
+ * от числа различных ключей. Частота за скользящее окно оценивается как сумма текущего
+ * окна и доли предыдущего, пропорциональной еще не прошедшей части текущего.
+ * Оценки завышены не более чем на {@code e / width} от числа запросов за окно.
+ * </p>
+ */
+@Service
+public class ClientHotKeyTracker {
+
+    @Value("${app.hot-keys.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.hot-keys.top-k:20}")
+    private int topK;
+
+    @Value("${app.hot-keys.width:2048}")
+    private int width;
+
+    @Value("${app.hot-keys.depth:4}")
+    private int depth;
+
+    @Value("${app.hot-keys.window:60s}")
+    private Duration window;
+
+    private final Map<ClientKeyType, Tracker> trackers = new EnumMap<>(ClientKeyType.class);
+
+    @PostConstruct
+    public void init() {
+        if (topK < 1) {
+            throw new IllegalArgumentException("app.hot-keys.top-k должен быть больше нуля");
+        }
+        for (ClientKeyType type : ClientKeyType.values()) {
+            trackers.put(type, new Tracker());
+        }
+    }
+
+    /**
+     * Учесть запрос клиента по ключу
+     */
+    public void record(ClientKeyType type, Object key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        trackers.get(type).record(key.toString(), System.nanoTime());
+    }
+
+    /**
+     * Текущие лидеры по каждому типу ключа, по убыванию частоты
+     */
+    public Map<ClientKeyType, List<HotKeyDTO>> topKeys() {
+        Map<ClientKeyType, List<HotKeyDTO>> result = new EnumMap<>(ClientKeyType.class);
+        if (!enabled) {
+            return result;
+        }
+        long now = System.nanoTime();
+        trackers.forEach((type, tracker) -> result.put(type, tracker.top(now)));
+        return result;
+    }
+
+    /**
+     * Кандидат в лидеры окна с оценкой частоты на момент последнего обновления
+     */
+    private static final class Candidate {
+
+        private final String key;
+        private long count;
+
+        private Candidate(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Окно подсчета: Count-Min Sketch и min-куча кандидатов
+     */
+    private final class Window {
+
+        private final long startNanos;
+        private final CountMinSketch sketch = new CountMinSketch(width, depth);
+        private final PriorityQueue<Candidate> heap =
+                new PriorityQueue<>(topK, Comparator.comparingLong(candidate -> candidate.count));
+        private final Map<String, Candidate> candidates = new HashMap<>();
+
+        /**
+         * Минимальная оценка в заполненной куче: ключи с оценкой не выше нее не проверяются под блокировкой
+         */
+        private volatile long threshold;
+
+        private Window(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        private void add(String key) {
+            long estimate = sketch.add(key);
+            if (estimate <= threshold) {
+                return;
+            }
+            synchronized (this) {
+                Candidate candidate = candidates.get(key);
+                if (candidate != null) {
+                    heap.remove(candidate);
+                    candidate.count = Math.max(candidate.count, estimate);
+                    heap.add(candidate);
+                } else if (heap.size() < topK) {
+                    candidate = new Candidate(key, estimate);
+                    candidates.put(key, candidate);
+                    heap.add(candidate);
+                } else if (estimate > heap.peek().count) {
+                    candidates.remove(heap.poll().key);
+                    candidate = new Candidate(key, estimate);
+                    candidates.put(key, candidate);
+                    heap.add(candidate);
+                }
+                if (heap.size() == topK) {
+                    threshold = heap.peek().count;
+                }
+            }
+        }
+
+        private synchronized Set<String> keys() {
+            return new LinkedHashSet<>(candidates.keySet());
+        }
+    }
+
+    /**
+     * Текущее и предыдущее окна одного типа ключа
+     */
+    private final class Tracker {
+
+        private volatile Window current = new Window(System.nanoTime());
+        private volatile Window previous;
+
+        private void record(String key, long now) {
+            rotateIfNeeded(now).add(key);
+        }
+
+        private Window rotateIfNeeded(long now) {
+            Window window = current;
+            long windowNanos = ClientHotKeyTracker.this.window.toNanos();
+            if (now - window.startNanos < windowNanos) {
+                return window;
+            }
+            synchronized (this) {
+                window = current;
+                long elapsed = now - window.startNanos;
+                if (elapsed >= windowNanos) {
+                    // После простоя дольше окна предыдущие частоты уже неактуальны
+                    previous = elapsed < 2 * windowNanos ? window : null;
+                    current = new Window(window.startNanos + (elapsed / windowNanos) * windowNanos);
+                    window = current;
+                }
+                return window;
+            }
+        }
+
+        private List<HotKeyDTO> top(long now) {
+            Window cur = rotateIfNeeded(now);
+            Window prev = previous;
+            long windowNanos = window.toNanos();
+            long elapsed = Math.max(0, now - cur.startNanos);
+
+            double previousWeight = prev != null ? 1.0 - (double) elapsed / windowNanos : 0;
+            double spanSeconds = prev != null ?
+                    windowNanos / 1e9 : Math.max(1.0, elapsed / 1e9);
+
+            Set<String> keys = cur.keys();
+            if (prev != null) {
+                keys.addAll(prev.keys());
+            }
+
+            List<HotKeyDTO> top = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                long count = cur.sketch.estimate(key);
+                if (prev != null) {
+                    count += Math.round(prev.sketch.estimate(key) * previousWeight);
+                }
+                if (count == 0) {
+                    continue;
+                }
+                top.add(HotKeyDTO.builder()
+                        .key(key)
+                        .count(count)
+                        .ratePerSecond(Math.round(count / spanSeconds * 100) / 100.0)
+                        .build());
+            }
+
+            top.sort(Comparator.comparingLong(HotKeyDTO::getCount).reversed());
+            return top.size() > topK ? new ArrayList<>(top.subList(0, topK)) : top;
+        }
+    }
+}
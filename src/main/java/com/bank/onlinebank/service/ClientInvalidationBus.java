@@ -0,0 +1,302 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Шина инвалидации кэшей между узлами через PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Каждое изменение клиента на этом узле отправляется {@code pg_notify} в той же транзакции,
+ * поэтому другие узлы получают его только после коммита, а откат ничего не отправляет.
+ * Полученные уведомления других узлов публикуются локально как {@link ClientChangedEvent},
+ * и все кэши и индексы в памяти обновляются так же, как при локальной записи.
+ * </p>
+ * <p>
+ * Уведомления слушает отдельное соединение вне пула Hikari в собственном потоке. При обрыве
+ * поток переподключается с экспоненциальной задержкой, а после переподключения публикует
+ * {@link ClientChangesLostEvent}: уведомления за время обрыва потеряны, локальные данные
+ * перестраиваются. События публикуются в потоке шины, поэтому подписчики не читают таблицу
+ * в нем: одни только помечают данные и перестраивают их периодической задачей
+ * ({@link ClientBitmapIndex}, {@link ClientColumnarService}) или при следующем поиске
+ * ({@link ClientFuzzySearchService}), другие перестраивают их в отдельном потоке ({@code @Async}:
+ * {@link ClientUniquenessFilter}, {@link ClientStatisticsService}, {@link ClientSuggestService},
+ * {@link ClientCubeService}).
+ * </p>
+ * <p>
+ * Метрики: {@code client.invalidation.sent}, {@code client.invalidation.received},
+ * {@code client.invalidation.reconnects}, {@code client.invalidation.connected} и задержка
+ * доставки {@code client.invalidation.lag} (по часам узлов, поэтому чувствительна к их рассинхронизации).
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientInvalidationBus {
+
+    /**
+     * Предел размера уведомления в PostgreSQL — 8000 байт, оставляем запас
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cluster.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cluster.invalidation.channel:client_changes}")
+    private String channel;
+
+    @Value("${app.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${app.cluster.invalidation.poll-timeout:10s}")
+    private Duration pollTimeout;
+
+    @Value("${app.cluster.invalidation.max-backoff:30s}")
+    private Duration maxBackoff;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private String nodeId;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    private Counter sent;
+    private Counter received;
+    private Counter reconnects;
+    private Timer lag;
+
+    /**
+     * Сообщение шины
+     *
+     * @param nodeId   узел-отправитель
+     * @param sentAt   время отправки, мс с эпохи Unix
+     * @param type     тип изменения
+     * @param clientId ID клиента
+     * @param previous состояние до изменения; null, если не поместилось в уведомление
+     * @param current  состояние после изменения; null, если не поместилось в уведомление
+     */
+    private record Message(String nodeId, long sentAt, ClientChangedEvent.ChangeType type, Long clientId,
+                           ClientDTO previous, ClientDTO current) {}
+
+    @PostConstruct
+    public void init() {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Некорректное имя канала инвалидации: " + channel);
+        }
+        nodeId = configuredNodeId.isBlank() ? UUID.randomUUID().toString() : configuredNodeId;
+
+        sent = Counter.builder("client.invalidation.sent")
+                .description("Client change notifications sent to other nodes")
+                .register(meterRegistry);
+        received = Counter.builder("client.invalidation.received")
+                .description("Client change notifications received from other nodes")
+                .register(meterRegistry);
+        reconnects = Counter.builder("client.invalidation.reconnects")
+                .description("Reconnect attempts of the invalidation listener connection")
+                .register(meterRegistry);
+        lag = Timer.builder("client.invalidation.lag")
+                .description("Delay between a write on another node and its local invalidation")
+                .register(meterRegistry);
+        Gauge.builder("client.invalidation.connected", this, bus -> bus.connected ? 1 : 0)
+                .description("Whether the invalidation listener connection is established")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запуск потока-слушателя при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "client-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        log.info("Шина инвалидации запущена: узел {}, канал {}", nodeId, channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        closeQuietly(listenConnection);
+    }
+
+    /**
+     * Отправка изменения другим узлам внутри транзакции записи
+     */
+    @EventListener
+    public void onClientChanged(ClientChangedEvent event) {
+        if (!enabled || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return; // полученные от других узлов события публикуются вне транзакции и не пересылаются
+        }
+
+        String payload = serialize(new Message(nodeId, System.currentTimeMillis(), event.type(),
+                event.clientId(), event.previous(), event.current()));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            log.warn("Уведомление об изменении клиента {} слишком велико, отправляется без данных", event.clientId());
+            payload = serialize(new Message(nodeId, System.currentTimeMillis(), event.type(),
+                    event.clientId(), null, null));
+        }
+
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> { }, channel, payload);
+        sent.increment();
+    }
+
+    private void listen() {
+        long backoffMillis = 1000;
+        boolean wasConnected = false;
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                connected = true;
+                backoffMillis = 1000;
+
+                if (wasConnected) {
+                    log.warn("Шина инвалидации переподключена, локальные кэши клиентов сброшены");
+                    eventPublisher.publishEvent(new ClientChangesLostEvent("переподключение шины инвалидации"));
+                }
+                wasConnected = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications == null || notifications.length == 0) {
+                        // Проверка соединения: getNotifications не замечает тихий обрыв сети
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                if (connected || backoffMillis == 1000) {
+                    log.warn("Соединение шины инвалидации потеряно: {}. Повтор через {} мс",
+                            e.getMessage(), backoffMillis);
+                } else {
+                    log.debug("Не удалось подключить шину инвалидации: {}", e.getMessage());
+                }
+            } finally {
+                connected = false;
+                listenConnection = null;
+            }
+
+            if (!running) {
+                break;
+            }
+            reconnects.increment();
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoff.toMillis());
+        }
+    }
+
+    private void handle(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Некорректное уведомление шины инвалидации: {}", e.getOriginalMessage());
+            return;
+        }
+        if (nodeId.equals(message.nodeId())) {
+            return;
+        }
+
+        received.increment();
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - message.sentAt())));
+
+        try {
+            if (message.previous() == null && message.current() == null) {
+                eventPublisher.publishEvent(new ClientChangesLostEvent(
+                        "изменение клиента " + message.clientId() + " без данных"));
+            } else {
+                eventPublisher.publishEvent(new ClientChangedEvent(message.type(), message.previous(), message.current()));
+            }
+        } catch (Exception e) {
+            log.error("Ошибка при обработке изменения клиента {} с узла {}: {}",
+                    message.clientId(), message.nodeId(), e.getMessage());
+        }
+    }
+
+    private String serialize(Message message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать уведомление об изменении клиента", e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // соединение и так закрывается при остановке
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.component.ClientWriteEpoch;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.bank.onlinebank.exception.ClientNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through кэш клиентов для поиска по ID, номеру счета и уникальному ID.
+ * <p>
+ * Данные клиента хранятся один раз в кэше по ID (ограничен суммарным весом DTO и TTL),
+ * номер счета и уникальный ID отображаются на ID отдельными кэшами. Изменение или
+ * удаление клиента точечно сбрасывает все три ключа после коммита. Статистика
+ * попаданий, промахов и времени загрузки публикуется как {@code cache.*{cache=client.lookup.*}}.
+ * </p>
+ * <p>
+ * Ключи, по которым клиент не найден, запоминаются на короткое время в отдельном
+ * кэше: повторный запрос несуществующего счета отвечает исключением без стека,
+ * не обращаясь к БД. Создание клиента (или смена его ключей) сбрасывает такие записи.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientLookupCache {
+
+    /**
+     * Оценка веса DTO без строк: заголовки объектов, даты, перечисления
+     */
+    private static final int BASE_WEIGHT = 256;
+
+    private final ClientWriteEpoch writeEpoch;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.client-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.client-cache.max-weight:64MB}")
+    private DataSize maxWeight;
+
+    @Value("${app.client-cache.max-keys:500000}")
+    private long maxKeys;
+
+    @Value("${app.client-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${app.client-cache.negative.max-size:100000}")
+    private long negativeMaxSize;
+
+    @Value("${app.client-cache.negative.ttl:30s}")
+    private Duration negativeTtl;
+
+    private Cache<Long, ClientDTO> byId;
+    private Cache<String, Long> idByAccountNumber;
+    private Cache<String, Long> idByUniqueId;
+    private Cache<MissKey, String> misses;
+
+    /**
+     * Ключ промаха: тип ключа поиска и его значение
+     */
+    private record MissKey(KeyType type, Object value) {}
+
+    private enum KeyType {
+        ID,
+        ACCOUNT_NUMBER,
+        UNIQUE_ID
+    }
+
+    @PostConstruct
+    public void init() {
+        byId = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((Long id, ClientDTO client) -> weigh(client))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        idByAccountNumber = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        idByUniqueId = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        misses = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "client.lookup.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByAccountNumber, "client.lookup.account");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByUniqueId, "client.lookup.unique-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, misses, "client.lookup.negative");
+    }
+
+    /**
+     * Клиент по ID из кэша или из loader'а
+     */
+    public ClientDTO getById(Long id, Function<Long, ClientDTO> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        MissKey missKey = new MissKey(KeyType.ID, id);
+        throwIfKnownMiss(missKey);
+
+        long epoch = writeEpoch.current();
+        try {
+            ClientDTO client = byId.get(id, loader);
+            discardIfChanged(epoch, client);
+            return client;
+        } catch (ClientNotFoundException e) {
+            rememberMiss(epoch, missKey, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Клиент по ID, если он уже в кэше; без загрузки
+     */
+    public ClientDTO peekById(Long id) {
+        return enabled ? byId.getIfPresent(id) : null;
+    }
+
+    /**
+     * Клиент по номеру счета, если он уже в кэше; без загрузки
+     */
+    public ClientDTO peekByAccountNumber(String accountNumber) {
+        if (!enabled) {
+            return null;
+        }
+        Long id = idByAccountNumber.getIfPresent(accountNumber);
+        return id != null ? byId.getIfPresent(id) : null;
+    }
+
+    /**
+     * Клиент по номеру счета из кэша или из loader'а
+     */
+    public ClientDTO getByAccountNumber(String accountNumber, Function<String, ClientDTO> loader) {
+        return getByAlias(idByAccountNumber, KeyType.ACCOUNT_NUMBER, accountNumber, loader);
+    }
+
+    /**
+     * Клиент по уникальному ID из кэша или из loader'а
+     */
+    public ClientDTO getByUniqueId(String uniqueId, Function<String, ClientDTO> loader) {
+        return getByAlias(idByUniqueId, KeyType.UNIQUE_ID, uniqueId, loader);
+    }
+
+    /**
+     * Точечная инвалидация после коммита изменения клиента: старые и новые ключи,
+     * а также запомненные промахи по новым ключам
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        invalidate(event.previous());
+        invalidate(event.current());
+
+        ClientDTO current = event.current();
+        if (current != null) {
+            misses.invalidate(new MissKey(KeyType.ID, current.getId()));
+            misses.invalidate(new MissKey(KeyType.ACCOUNT_NUMBER, current.getAccountNumber()));
+            misses.invalidate(new MissKey(KeyType.UNIQUE_ID, current.getUniqueId()));
+        }
+    }
+
+    /**
+     * Полная очистка, если изменения других узлов могли быть пропущены
+     */
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        byId.invalidateAll();
+        idByAccountNumber.invalidateAll();
+        idByUniqueId.invalidateAll();
+        misses.invalidateAll();
+    }
+
+    private ClientDTO getByAlias(Cache<String, Long> aliases, KeyType type, String key,
+                                 Function<String, ClientDTO> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+
+        MissKey missKey = new MissKey(type, key);
+        throwIfKnownMiss(missKey);
+
+        long epoch = writeEpoch.current();
+        try {
+            return loadByAlias(aliases, key, loader, epoch);
+        } catch (ClientNotFoundException e) {
+            rememberMiss(epoch, missKey, e);
+            throw e;
+        }
+    }
+
+    private ClientDTO loadByAlias(Cache<String, Long> aliases, String key,
+                                  Function<String, ClientDTO> loader, long epoch) {
+        ClientDTO[] loaded = new ClientDTO[1];
+        Long id = aliases.get(key, k -> {
+            loaded[0] = loader.apply(k);
+            return loaded[0].getId();
+        });
+
+        ClientDTO client = loaded[0];
+        if (client != null) {
+            byId.put(id, client);
+        } else {
+            client = byId.getIfPresent(id);
+            if (client == null) {
+                // Данные вытеснены раньше ссылки на них: загружаем заново
+                client = loader.apply(key);
+                aliases.put(key, client.getId());
+                byId.put(client.getId(), client);
+            }
+        }
+
+        discardIfChanged(epoch, client);
+        return client;
+    }
+
+    private void throwIfKnownMiss(MissKey key) {
+        String message = misses.getIfPresent(key);
+        if (message != null) {
+            throw ClientNotFoundException.stackless(message);
+        }
+    }
+
+    /**
+     * Промах запоминается, только если за время запроса не было записей: иначе клиент
+     * мог появиться уже после чтения
+     */
+    private void rememberMiss(long epoch, MissKey key, ClientNotFoundException e) {
+        if (writeEpoch.current() == epoch) {
+            misses.put(key, e.getMessage());
+        }
+    }
+
+    /**
+     * Если за время загрузки была запись, загруженное могло устареть до попадания в кэш
+     */
+    private void discardIfChanged(long epoch, ClientDTO client) {
+        if (writeEpoch.current() != epoch) {
+            invalidate(client);
+        }
+    }
+
+    private void invalidate(ClientDTO client) {
+        if (client == null) {
+            return;
+        }
+        byId.invalidate(client.getId());
+        if (client.getAccountNumber() != null) {
+            idByAccountNumber.invalidate(client.getAccountNumber());
+        }
+        if (client.getUniqueId() != null) {
+            idByUniqueId.invalidate(client.getUniqueId());
+        }
+    }
+
+    private static int weigh(ClientDTO client) {
+        return BASE_WEIGHT + 2 * (length(client.getUniqueId()) + length(client.getLastName())
+                + length(client.getFirstName()) + length(client.getMiddleName())
+                + length(client.getFullName()) + length(client.getShortName())
+                + length(client.getAccountNumber()) + length(client.getPhoneNumber()));
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
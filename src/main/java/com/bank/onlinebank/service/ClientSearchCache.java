@@ -0,0 +1,92 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.component.ClientWriteEpoch;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.TotalCountMode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный по размеру кэш результатов поиска клиентов.
+ * <p>
+ * Ключ — параметры поиска плюс {@link ClientWriteEpoch}: после любой записи новые
+ * запросы идут мимо старых записей, а те вытесняются по размеру или TTL.
+ * Статистика попаданий и вытеснений публикуется как {@code cache.*{cache=client.search}}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientSearchCache {
+
+    private final ClientWriteEpoch writeEpoch;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.search.cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<SearchKey, Object> cache;
+
+    /**
+     * Ключ кэша
+     *
+     * @param totalMode режим подсчета количества; null для ответа в виде Page
+     */
+    private record SearchKey(long epoch, String term, Currency currency, Nationality nationality,
+                             int page, int size, Sort sort, TotalCountMode totalMode) {}
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "client.search");
+    }
+
+    /**
+     * Результат поиска из кэша или вычисленный loader'ом для текущей эпохи записи
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String term, Currency currency, Nationality nationality, Pageable pageable,
+                     TotalCountMode totalMode, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        SearchKey key = new SearchKey(writeEpoch.current(), term, currency, nationality,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), totalMode);
+        // Без cache.get(key, loader): загрузка может сама обращаться к кэшу (вложенный поиск),
+        // а рекурсивное вычисление внутри одной карты недопустимо
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        T result = loader.get();
+        if (result != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+}
@@ -1,21 +1,53 @@
 package com.bank.onlinebank.service;
 
+import com.bank.onlinebank.component.ClientWriteEpoch;
+import com.bank.onlinebank.dto.ClientBatchResponseDTO;
 import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.dto.ClientRow;
+import com.bank.onlinebank.dto.ClientVersion;
+import com.bank.onlinebank.dto.CursorPageDTO;
+import com.bank.onlinebank.dto.PageEnvelope;
+import com.bank.onlinebank.dto.SlicePageDTO;
 import com.bank.onlinebank.entity.Client;
+import com.bank.onlinebank.enums.ClientKeyType;
 import com.bank.onlinebank.enums.Currency;
 import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.enums.TotalCountMode;
+import com.bank.onlinebank.event.ClientChangedEvent;
 import com.bank.onlinebank.exception.ClientAlreadyExistsException;
 import com.bank.onlinebank.exception.ClientNotFoundException;
+import com.bank.onlinebank.repository.ClientCountEstimator;
 import com.bank.onlinebank.repository.ClientRepository;
+import com.bank.onlinebank.repository.ClientSpecifications;
+import com.bank.onlinebank.util.ClientCursor;
+import com.bank.onlinebank.util.RussianMetaphone;
+import com.bank.onlinebank.util.SingleFlight;
+import com.bank.onlinebank.util.Transliterator;
+import com.bank.onlinebank.util.TsQueryBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -27,7 +59,58 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ClientService {
 
+    private static final int MIN_SEARCH_DIGITS = 4;
+    private static final int RECENT_CLIENTS_LIMIT = 10;
+    private static final Pattern SEARCH_DIGITS_PATTERN = Pattern.compile("\\d{" + MIN_SEARCH_DIGITS + ",20}");
+    private static final Pattern LATIN_LETTER_PATTERN = Pattern.compile("[A-Za-z]");
+    private static final String ACCOUNT_NUMBER_CONSTRAINT = "clients_account_number_key";
+    private static final String PHONE_NUMBER_CONSTRAINT = "clients_phone_number_key";
+
     private final ClientRepository clientRepository;
+    private final ClientCountEstimator clientCountEstimator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientFuzzySearchService fuzzySearchService;
+    private final ClientSearchCache searchCache;
+    private final ClientLookupCache lookupCache;
+    private final ClientUniquenessFilter uniquenessFilter;
+    private final ClientStatisticsService statistics;
+    private final ClientBitmapIndex bitmapIndex;
+    private final ClientWriteEpoch writeEpoch;
+
+    /**
+     * Выполняющиеся сейчас запросы чтения: одинаковые одновременные запросы ждут один общий
+     */
+    private final SingleFlight<Object, Object> readFlights = new SingleFlight<>();
+
+    @Value("${app.search.full-text.enabled:true}")
+    private boolean fullTextSearchEnabled;
+
+    @Value("${app.client-batch.max-keys:5000}")
+    private int batchMaxKeys;
+
+    @Value("${app.client-batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${app.bitmap-index.max-id-fetch:1000}")
+    private int bitmapMaxIdFetch;
+
+    /**
+     * Ключи объединяемых запросов статистики
+     */
+    private enum StatisticsQuery {
+        CURRENCY,
+        NATIONALITY
+    }
+
+    /**
+     * Ключ объединяемого поискового запроса. Эпоха записи входит в ключ, как и в ключ
+     * {@link ClientSearchCache}: вызов после коммита не присоединяется к загрузке,
+     * начатой до него, и ее результат не попадает в кэш под новой эпохой.
+     *
+     * @param totalMode режим подсчета количества; null для ответа в виде Page
+     */
+    private record SearchQuery(long epoch, String term, Currency currency, Nationality nationality,
+                               Pageable pageable, TotalCountMode totalMode) {}
 
     /**
      * Получить всех клиентов с пагинацией
@@ -36,58 +119,482 @@ public class ClientService {
         log.debug("Получение списка клиентов, страница: {}, размер: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Client> clients = clientRepository.findAll(pageable);
-        return clients.map(this::convertToDTO);
+        return clientRepository.findAllRows(pageable).map(this::convertToDTO);
     }
 
     /**
-     * Получить клиента по ID
+     * Получить клиента по ID (через кэш; транзакция открывается только при промахе)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ClientDTO getClientById(Long id) {
         log.debug("Получение клиента по ID: {}", id);
 
-        Client client = clientRepository.findById(id)
-                .orElseThrow(() -> new ClientNotFoundException("Клиент с ID " + id + " не найден"));
+        return lookupCache.getById(id, key -> clientRepository.findById(key)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> ClientNotFoundException.stackless("Клиент с ID " + key + " не найден")));
+    }
 
-        return convertToDTO(client);
+    /**
+     * Версия клиента по ID для проверки ETag: из кэша, иначе запросом только id и version
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ClientVersion> getClientVersion(Long id) {
+        ClientDTO cached = lookupCache.peekById(id);
+        if (cached != null) {
+            return Optional.of(new ClientVersion(cached.getId(), cached.getVersion()));
+        }
+        return clientRepository.findVersionById(id);
+    }
+
+    /**
+     * Версия клиента по номеру счета для проверки ETag: из кэша, иначе запросом только id и version
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ClientVersion> getClientVersionByAccountNumber(String accountNumber) {
+        ClientDTO cached = lookupCache.peekByAccountNumber(accountNumber);
+        if (cached != null) {
+            return Optional.of(new ClientVersion(cached.getId(), cached.getVersion()));
+        }
+        return clientRepository.findVersionByAccountNumber(accountNumber);
     }
 
     /**
-     * Получить клиента по уникальному идентификатору
+     * Получить клиента по уникальному идентификатору (через кэш)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ClientDTO getClientByUniqueId(String uniqueId) {
         log.debug("Получение клиента по уникальному ID: {}", uniqueId);
 
-        Client client = clientRepository.findByUniqueId(uniqueId)
-                .orElseThrow(() -> new ClientNotFoundException("Клиент с уникальным ID " + uniqueId + " не найден"));
-
-        return convertToDTO(client);
+        return lookupCache.getByUniqueId(uniqueId, key -> clientRepository.findByUniqueId(key)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> ClientNotFoundException.stackless("Клиент с уникальным ID " + key + " не найден")));
     }
 
     /**
-     * Получить клиента по номеру счета
+     * Получить клиента по номеру счета (через кэш)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ClientDTO getClientByAccountNumber(String accountNumber) {
         log.debug("Получение клиента по номеру счета: {}", accountNumber);
 
-        Client client = clientRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new ClientNotFoundException("Клиент с номером счета " + accountNumber + " не найден"));
+        return lookupCache.getByAccountNumber(accountNumber, key -> clientRepository.findByAccountNumber(key)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> ClientNotFoundException.stackless("Клиент с номером счета " + key + " не найден")));
+    }
+
+    /**
+     * Поиск клиентов с выборкой только указанных полей (параметр fields) в компактной обертке.
+     * Условия и порядок те же, что у обычного поиска; в SQL попадают только нужные колонки.
+     */
+    public PageEnvelope<Map<String, Object>> searchClientFields(String searchTerm, Currency currency,
+                                                                Nationality nationality, List<String> fields,
+                                                                Pageable pageable, TotalCountMode totalMode) {
+        log.debug("Поиск клиентов с выборкой полей {}: searchTerm={}, currency={}, nationality={}",
+                fields, searchTerm, currency, nationality);
+
+        String currencyName = currency != null ? currency.name() : null;
+        String nationalityName = nationality != null ? nationality.name() : null;
+        boolean nameQuery = fullTextSearchEnabled && isNameQuery(searchTerm);
+        boolean latin = nameQuery && LATIN_LETTER_PATTERN.matcher(searchTerm).find();
+        String tsQuery = nameQuery ? TsQueryBuilder.prefixQuery(latin ? Transliterator.fold(searchTerm) : searchTerm) : null;
+        Specification<Client> spec = ClientSpecifications.matchesSearch(searchTerm, currency, nationality);
+
+        List<Map<String, Object>> rows;
+        boolean hasNext;
+        if (nameQuery) {
+            // Порядок релевантности задает нативный запрос ID, поля дочитываются проекцией
+            Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            Slice<Long> ids = latin ?
+                    clientRepository.searchKeySearchIdSlice(tsQuery, currencyName, nationalityName, unsorted) :
+                    clientRepository.fullTextSearchIdSlice(tsQuery, currencyName, nationalityName, unsorted);
+            rows = clientRepository.findFieldsByIds(ids.getContent(), fields);
+            hasNext = ids.hasNext();
+        } else {
+            Slice<Map<String, Object>> slice = clientRepository.findFieldsBy(spec, fields, pageable);
+            rows = slice.getContent();
+            hasNext = slice.hasNext();
+        }
+
+        Long total = null;
+        if (totalMode != TotalCountMode.NONE) {
+            long seen = pageable.getOffset() + rows.size();
+            if (!hasNext && (!rows.isEmpty() || pageable.getPageNumber() == 0)) {
+                total = seen;
+            } else if (totalMode == TotalCountMode.ESTIMATED) {
+                boolean unfiltered = (searchTerm == null || searchTerm.isEmpty()) && currency == null && nationality == null;
+                OptionalLong estimate = nameQuery ?
+                        (latin ? clientCountEstimator.estimateSearchKeySearch(tsQuery, currencyName, nationalityName) :
+                                clientCountEstimator.estimateFullTextSearch(tsQuery, currencyName, nationalityName)) :
+                        (unfiltered ? clientCountEstimator.estimateTotal() :
+                                clientCountEstimator.estimateSearch(searchTerm, currencyName, nationalityName));
+                total = estimate.isPresent() ? Math.max(estimate.getAsLong(), seen + (hasNext ? 1 : 0)) : null;
+            }
+            if (total == null && !nameQuery) {
+                total = indexedCount(searchTerm, currency, nationality);
+            }
+            if (total == null) {
+                total = !nameQuery ? clientRepository.count(spec) : latin ?
+                        clientRepository.countSearchKeySearch(tsQuery, currencyName, nationalityName) :
+                        clientRepository.countFullTextSearch(tsQuery, currencyName, nationalityName);
+            }
+        }
+
+        return PageEnvelope.<Map<String, Object>>builder()
+                .items(rows)
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .hasNext(hasNext)
+                .total(total)
+                .totalMode(totalMode)
+                .build();
+    }
+
+    /**
+     * Пакетный поиск клиентов по ключам одного типа в одной читающей транзакции.
+     * Ключи запрашиваются порциями через IN (...); повторы ключей схлопываются.
+     */
+    public ClientBatchResponseDTO getClientsByKeys(ClientKeyType keyType, List<String> keys) {
+        Set<String> uniqueKeys = new LinkedHashSet<>(keys);
+        uniqueKeys.remove(null);
+        if (uniqueKeys.size() > batchMaxKeys) {
+            throw new IllegalArgumentException("Количество ключей не должно превышать " + batchMaxKeys);
+        }
+        log.debug("Пакетный поиск клиентов: тип ключа {}, ключей {}", keyType, uniqueKeys.size());
 
-        return convertToDTO(client);
+        List<String> requested = new ArrayList<>(uniqueKeys);
+        Map<String, ClientDTO> byKey = new HashMap<>(requested.size() * 2);
+        for (int from = 0; from < requested.size(); from += batchChunkSize) {
+            List<String> chunk = requested.subList(from, Math.min(from + batchChunkSize, requested.size()));
+            for (Client client : findChunk(keyType, chunk)) {
+                ClientDTO dto = convertToDTO(client);
+                byKey.put(keyOf(keyType, dto), dto);
+            }
+        }
+
+        List<ClientDTO> found = new ArrayList<>(byKey.size());
+        List<String> missing = new ArrayList<>();
+        for (String key : requested) {
+            // ID ищется в канонической записи ("007", "+7" -> "7"), в missing остается ключ вызывающего
+            ClientDTO client = byKey.get(keyType == ClientKeyType.ID ? String.valueOf(parseId(key)) : key);
+            if (client != null) {
+                found.add(client);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        return ClientBatchResponseDTO.builder()
+                .keyType(keyType)
+                .found(found)
+                .missing(missing)
+                .build();
     }
 
     /**
-     * Поиск клиентов с фильтрами
+     * Поиск клиентов с фильтрами.
+     * Выполняется вне транзакции сервиса, чтобы ожидающие общего результата вызовы не держали соединение.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<ClientDTO> searchClients(String searchTerm, Currency currency,
                                          Nationality nationality, Pageable pageable) {
         log.debug("Поиск клиентов: searchTerm={}, currency={}, nationality={}",
                 searchTerm, currency, nationality);
 
-        Page<Client> clients = clientRepository.searchClients(
-                searchTerm, currency, nationality, pageable);
+        return searchCache.get(searchTerm, currency, nationality, pageable, null,
+                () -> coalesce(new SearchQuery(writeEpoch.current(), searchTerm, currency, nationality, pageable, null),
+                        () -> loadSearchPage(searchTerm, currency, nationality, pageable)));
+    }
+
+    /**
+     * Поиск в БД без кэша
+     */
+    private Page<ClientDTO> loadSearchPage(String searchTerm, Currency currency,
+                                           Nationality nationality, Pageable pageable) {
+        if (fullTextSearchEnabled && isNameQuery(searchTerm)) {
+            return LATIN_LETTER_PATTERN.matcher(searchTerm).find() ?
+                    transliteratedSearch(searchTerm, currency, nationality, pageable) :
+                    fullTextSearch(searchTerm, currency, nationality, pageable);
+        }
+
+        // Без строки поиска общее количество берется из битового индекса, запрос к БД — только за страницей
+        Long total = indexedCount(searchTerm, currency, nationality);
+        if (total != null) {
+            List<ClientDTO> content = total > pageable.getOffset() ?
+                    clientRepository.findRowsBy(ClientSpecifications.matchesSearch(null, currency, nationality), pageable)
+                            .map(this::convertToDTO).getContent() :
+                    List.of();
+            return new PageImpl<>(content, pageable, total);
+        }
+
+        return clientRepository.searchClientRows(searchTerm, currency, nationality, pageable)
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Точное количество по битовому индексу для поиска без строки поиска; null, если
+     * строка поиска задана или индекс не построен
+     */
+    private Long indexedCount(String searchTerm, Currency currency, Nationality nationality) {
+        if (searchTerm != null && !searchTerm.isEmpty()) {
+            return null;
+        }
+        long count = bitmapIndex.count(
+                currency != null ? List.of(currency) : null,
+                nationality != null ? List.of(nationality) : null,
+                null, null);
+        return count >= 0 ? count : null;
+    }
+
+    /**
+     * Полнотекстовый поиск по ФИО с префиксным совпадением слов.
+     * Порядок определяется релевантностью, поэтому сортировка из pageable не применяется.
+     */
+    private Page<ClientDTO> fullTextSearch(String searchTerm, Currency currency,
+                                           Nationality nationality, Pageable pageable) {
+        String tsQuery = TsQueryBuilder.prefixQuery(searchTerm);
+        log.debug("Полнотекстовый поиск клиентов: tsQuery='{}'", tsQuery);
+
+        Page<Long> ids = clientRepository.fullTextSearchIds(
+                tsQuery,
+                currency != null ? currency.name() : null,
+                nationality != null ? nationality.name() : null,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+
+        return new PageImpl<>(loadRows(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Поиск клиентов с выбором способа подсчета общего количества.
+     * <p>
+     * Страница читается как Slice (size + 1 строк, без COUNT). В режиме ESTIMATED общее
+     * количество берется из оценки планировщика, в режиме EXACT выполняется COUNT(*),
+     * в режиме NONE не вычисляется. На последней странице количество известно точно
+     * в любом режиме, кроме NONE.
+     * </p>
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SlicePageDTO<ClientDTO> searchClients(String searchTerm, Currency currency, Nationality nationality,
+                                                 Pageable pageable, TotalCountMode totalMode) {
+        log.debug("Поиск клиентов (slice): searchTerm={}, currency={}, nationality={}, total={}",
+                searchTerm, currency, nationality, totalMode);
+
+        return searchCache.get(searchTerm, currency, nationality, pageable, totalMode,
+                () -> coalesce(new SearchQuery(writeEpoch.current(), searchTerm, currency, nationality, pageable, totalMode),
+                        () -> loadSearchSlice(searchTerm, currency, nationality, pageable, totalMode)));
+    }
+
+    /**
+     * Поиск в БД без кэша (Slice с выбранным способом подсчета)
+     */
+    private SlicePageDTO<ClientDTO> loadSearchSlice(String searchTerm, Currency currency, Nationality nationality,
+                                                    Pageable pageable, TotalCountMode totalMode) {
+        if (totalMode == TotalCountMode.EXACT) {
+            Page<ClientDTO> page = searchClients(searchTerm, currency, nationality, pageable);
+            return SlicePageDTO.<ClientDTO>builder()
+                    .content(page.getContent())
+                    .number(page.getNumber())
+                    .size(page.getSize())
+                    .hasNext(page.hasNext())
+                    .totalElements(page.getTotalElements())
+                    .totalMode(TotalCountMode.EXACT)
+                    .build();
+        }
+
+        String currencyName = currency != null ? currency.name() : null;
+        String nationalityName = nationality != null ? nationality.name() : null;
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        Slice<ClientDTO> slice;
+        OptionalLong estimate = OptionalLong.empty();
+        boolean unfiltered = (searchTerm == null || searchTerm.isEmpty()) && currency == null && nationality == null;
+
+        if (fullTextSearchEnabled && isNameQuery(searchTerm)) {
+            boolean latin = LATIN_LETTER_PATTERN.matcher(searchTerm).find();
+            String tsQuery = TsQueryBuilder.prefixQuery(latin ? Transliterator.fold(searchTerm) : searchTerm);
+            Slice<Long> ids = latin ?
+                    clientRepository.searchKeySearchIdSlice(tsQuery, currencyName, nationalityName, unsorted) :
+                    clientRepository.fullTextSearchIdSlice(tsQuery, currencyName, nationalityName, unsorted);
+            slice = new SliceImpl<>(loadRows(ids.getContent()), unsorted, ids.hasNext());
+            if (totalMode == TotalCountMode.ESTIMATED && countUnknown(slice, pageable)) {
+                estimate = latin ?
+                        clientCountEstimator.estimateSearchKeySearch(tsQuery, currencyName, nationalityName) :
+                        clientCountEstimator.estimateFullTextSearch(tsQuery, currencyName, nationalityName);
+            }
+        } else {
+            slice = clientRepository.findRowsBy(
+                    ClientSpecifications.matchesSearch(searchTerm, currency, nationality), pageable)
+                    .map(this::convertToDTO);
+            if (totalMode == TotalCountMode.ESTIMATED && countUnknown(slice, pageable)) {
+                estimate = unfiltered ?
+                        clientCountEstimator.estimateTotal() :
+                        clientCountEstimator.estimateSearch(searchTerm, currencyName, nationalityName);
+            }
+        }
+
+        Long totalElements = null;
+        if (totalMode == TotalCountMode.ESTIMATED) {
+            long seen = pageable.getOffset() + slice.getNumberOfElements();
+            if (!countUnknown(slice, pageable)) {
+                totalElements = seen;
+            } else {
+                // Оценка не может быть меньше уже прочитанного (за концом выборки прочитанного нет);
+                // без статистики — точный подсчет
+                totalElements = estimate.isPresent() ?
+                        (slice.hasNext() ? Math.max(estimate.getAsLong(), seen + 1) : estimate.getAsLong()) :
+                        searchClients(searchTerm, currency, nationality, pageable).getTotalElements();
+            }
+        }
+
+        return SlicePageDTO.<ClientDTO>builder()
+                .content(slice.getContent())
+                .number(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .hasNext(slice.hasNext())
+                .totalElements(totalElements)
+                .totalMode(totalMode)
+                .build();
+    }
+
+    /**
+     * По странице Slice количество неизвестно, если есть следующая страница или страница пуста
+     * и лежит за концом выборки (тогда смещение ничего не говорит о количестве)
+     */
+    private static boolean countUnknown(Slice<?> slice, Pageable pageable) {
+        return slice.hasNext() || (!slice.hasContent() && pageable.getPageNumber() > 0);
+    }
+
+    /**
+     * Поиск по ФИО, набранному латиницей или смешанным алфавитом.
+     * Запрос сворачивается так же, как ключ поиска клиента, и ищется по префиксам слов.
+     */
+    private Page<ClientDTO> transliteratedSearch(String searchTerm, Currency currency,
+                                                 Nationality nationality, Pageable pageable) {
+        String tsQuery = TsQueryBuilder.prefixQuery(Transliterator.fold(searchTerm));
+        log.debug("Поиск клиентов по ключу транслитерации: tsQuery='{}'", tsQuery);
+
+        Page<Long> ids = clientRepository.searchKeySearchIds(
+                tsQuery,
+                currency != null ? currency.name() : null,
+                nationality != null ? nationality.name() : null,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+
+        return new PageImpl<>(loadRows(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Нечеткий поиск по ФИО, номеру счета и телефону с допуском опечаток.
+     * Кандидаты и их порядок берутся из индекса в памяти, из БД клиенты читаются по первичному ключу.
+     */
+    public List<ClientDTO> fuzzySearch(String query, Integer maxEdits, int limit) {
+        log.debug("Нечеткий поиск клиентов: query='{}', maxEdits={}, limit={}", query, maxEdits, limit);
+
+        List<Long> ids = fuzzySearchService.search(query, maxEdits, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return loadRows(ids);
+    }
+
+    /**
+     * Поиск клиентов с созвучной фамилией («Кузьмин» находит «Кузмин», «Соловьев» — «Соловьёв»).
+     * Фонетический код запроса сравнивается на равенство по индексированной колонке.
+     */
+    public Page<ClientDTO> searchByPhoneticLastName(String lastName, Pageable pageable) {
+        String code = RussianMetaphone.encode(lastName);
+        log.debug("Фонетический поиск клиентов: lastName='{}', code='{}'", lastName, code);
+
+        if (code.isEmpty()) {
+            throw new IllegalArgumentException("Фамилия для фонетического поиска должна содержать русские буквы");
+        }
+
+        return clientRepository.findByLastNamePhonetic(code, pageable)
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Поиск клиентов с keyset-пагинацией.
+     * <p>
+     * Без курсора возвращается первая страница в порядке (sort, id), по умолчанию
+     * (lastName, ASC). С курсором поле и направление сортировки берутся из него; если
+     * они переданы явно и не совпадают с курсором, запрос отклоняется. Запрос читает size + 1 строк
+     * по индексу и не выполняет COUNT, поэтому страница N стоит столько же, сколько первая.
+     * </p>
+     */
+    public CursorPageDTO<ClientDTO> searchClientsAfter(String searchTerm, Currency currency,
+                                                      Nationality nationality, String sort,
+                                                      Sort.Direction direction, String after, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля");
+        }
+
+        ClientCursor.SortField requestedField = sort == null ? null : ClientCursor.SortField.fromProperty(sort);
+        ClientCursor cursor = after == null || after.isBlank() ?
+                null : ClientCursor.decode(after, requestedField, direction);
+        ClientCursor.SortField sortField = cursor != null ? cursor.sortField() :
+                requestedField != null ? requestedField : ClientCursor.SortField.LAST_NAME;
+        Sort.Direction sortDirection = cursor != null ? cursor.direction() :
+                direction != null ? direction : Sort.Direction.ASC;
+
+        log.debug("Keyset-поиск клиентов: searchTerm={}, currency={}, nationality={}, sort={} {}, after={}",
+                searchTerm, currency, nationality, sortField, sortDirection, cursor != null ? cursor.id() : null);
+
+        Specification<Client> specification = ClientSpecifications.matchesSearch(searchTerm, currency, nationality);
+        if (cursor != null) {
+            specification = specification.and(ClientSpecifications.after(cursor));
+        }
+
+        List<Client> rows = clientRepository.findBy(specification, query -> query
+                .sortBy(ClientCursor.seekSort(sortField, sortDirection))
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = rows.size() > size;
+        List<ClientDTO> content = rows.stream()
+                .limit(size)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext ?
+                ClientCursor.after(content.get(content.size() - 1), sortField, sortDirection).encode() : null;
+
+        return CursorPageDTO.<ClientDTO>builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
 
-        return clients.map(this::convertToDTO);
+    /**
+     * Поиск клиентов по последним цифрам номера счета или телефона.
+     * Оба поиска идут по индексам на reverse(...), поэтому не зависят от размера таблицы.
+     */
+    public List<ClientDTO> searchByDigits(String digits, int limit) {
+        log.debug("Поиск клиентов по цифрам: digits={}, limit={}", digits, limit);
+
+        if (digits == null || !SEARCH_DIGITS_PATTERN.matcher(digits).matches()) {
+            throw new IllegalArgumentException("Для поиска укажите от " + MIN_SEARCH_DIGITS + " до 20 цифр");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Лимит должен быть больше нуля");
+        }
+
+        String reversedPattern = new StringBuilder(digits).reverse() + "%";
+
+        // Совпадения по счету идут первыми, затем по телефону; один клиент выводится один раз
+        Map<Long, Client> found = new LinkedHashMap<>();
+        clientRepository.findByAccountNumberSuffix(reversedPattern, limit)
+                .forEach(client -> found.putIfAbsent(client.getId(), client));
+        if (found.size() < limit) {
+            clientRepository.findByPhoneNumberSuffix(reversedPattern, limit)
+                    .forEach(client -> found.putIfAbsent(client.getId(), client));
+        }
+
+        return found.values().stream()
+                .limit(limit)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -112,10 +619,13 @@ public class ClientService {
             client.setAccountNumber(generateAccountNumber());
         }
 
-        Client savedClient = clientRepository.save(client);
+        Client savedClient = saveUnique(client);
         log.info("Клиент успешно создан с ID: {}", savedClient.getId());
 
-        return convertToDTO(savedClient);
+        ClientDTO createdClient = convertToDTO(savedClient);
+        eventPublisher.publishEvent(ClientChangedEvent.created(createdClient));
+
+        return createdClient;
     }
 
     /**
@@ -131,13 +641,19 @@ public class ClientService {
         // Проверка уникальности при изменении
         validateUniqueFieldsForUpdate(clientDTO, existingClient);
 
+        ClientDTO previousClient = convertToDTO(existingClient);
+
         // Обновляем поля
         updateClientFields(existingClient, clientDTO);
 
-        Client savedClient = clientRepository.save(existingClient);
+        // Сброс сразу, чтобы в ответ и событие попала уже увеличенная версия
+        Client savedClient = saveUnique(existingClient);
         log.info("Клиент с ID {} успешно обновлен", id);
 
-        return convertToDTO(savedClient);
+        ClientDTO updatedClient = convertToDTO(savedClient);
+        eventPublisher.publishEvent(ClientChangedEvent.updated(previousClient, updatedClient));
+
+        return updatedClient;
     }
 
     /**
@@ -147,12 +663,15 @@ public class ClientService {
     public void deleteClient(Long id) {
         log.info("Удаление клиента с ID: {}", id);
 
-        if (!clientRepository.existsById(id)) {
-            throw new ClientNotFoundException("Клиент с ID " + id + " не найден");
-        }
+        Client client = clientRepository.findById(id)
+                .orElseThrow(() -> new ClientNotFoundException("Клиент с ID " + id + " не найден"));
 
-        clientRepository.deleteById(id);
+        ClientDTO deletedClient = convertToDTO(client);
+
+        clientRepository.delete(client);
         log.info("Клиент с ID {} успешно удален", id);
+
+        eventPublisher.publishEvent(ClientChangedEvent.deleted(deletedClient));
     }
 
     /**
@@ -164,83 +683,243 @@ public class ClientService {
         LocalDate endDate = LocalDate.now().minusYears(minAge);
         LocalDate startDate = LocalDate.now().minusYears(maxAge + 1).plusDays(1);
 
-        List<Client> clients = clientRepository.findByBirthDateBetween(startDate, endDate);
+        // Битовый индекс сразу дает точный набор ID: пустой результат без запроса,
+        // небольшой — чтением по первичному ключу вместо диапазона по дате рождения
+        RoaringBitmap ids = bitmapIndex.match(null, null, startDate, endDate);
+        if (ids != null && ids.getLongCardinality() <= bitmapMaxIdFetch) {
+            return loadRows(toIdList(ids.getIntIterator(), ids.getCardinality()));
+        }
+
+        List<ClientRow> clients = clientRepository.findRowsByBirthDateBetween(startDate, endDate);
         return clients.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Получить статистику по валютам
+     * Фильтр клиентов по спискам валют и гражданств и диапазону возраста (null — без условия)
+     * с точным количеством. Порядок — по ID: страница выбирается из битового индекса,
+     * из БД читаются только ее строки. Пока индекс не построен, фильтр выполняется в БД.
      */
+    public PageEnvelope<ClientDTO> filterClients(List<Currency> currencies, List<Nationality> nationalities,
+                                                 Integer minAge, Integer maxAge, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Номер страницы не может быть отрицательным");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля");
+        }
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException("Минимальный возраст не может быть больше максимального");
+        }
+
+        log.debug("Фильтр клиентов: currency={}, nationality={}, возраст {} - {}, страница {}",
+                currencies, nationalities, minAge, maxAge, page);
+
+        LocalDate today = LocalDate.now();
+        LocalDate birthFrom = maxAge != null ? today.minusYears(maxAge + 1L).plusDays(1) : null;
+        LocalDate birthTo = minAge != null ? today.minusYears(minAge) : null;
+        long offset = (long) page * size;
+
+        List<ClientDTO> content;
+        long total;
+        RoaringBitmap ids = bitmapIndex.match(currencies, nationalities, birthFrom, birthTo);
+        if (ids != null) {
+            total = ids.getLongCardinality();
+            if (offset < total) {
+                PeekableIntIterator iterator = ids.getIntIterator();
+                iterator.advanceIfNeeded(ids.select((int) offset));
+                content = loadRows(toIdList(iterator, size));
+            } else {
+                content = List.of();
+            }
+        } else {
+            Specification<Client> spec = ClientSpecifications.matchesFilter(currencies, nationalities, birthFrom, birthTo);
+            content = clientRepository.findRowsBy(spec, PageRequest.of(page, size, Sort.by("id")))
+                    .map(this::convertToDTO).getContent();
+            total = clientRepository.count(spec);
+        }
+
+        return PageEnvelope.<ClientDTO>builder()
+                .items(content)
+                .page(page)
+                .size(size)
+                .hasNext(offset + content.size() < total)
+                .total(total)
+                .totalMode(TotalCountMode.EXACT)
+                .build();
+    }
+
+    private static List<Long> toIdList(PeekableIntIterator iterator, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    /**
+     * Получить статистику по валютам: из памяти, пока она не загружена — запросом к БД.
+     * Результат общий для одновременных вызовов, поэтому не изменяем.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<Currency, Long> getCurrencyStatistics() {
         log.debug("Получение статистики по валютам");
 
-        List<Object[]> stats = clientRepository.countByCurrency();
-        Map<Currency, Long> result = new HashMap<>();
-
-        for (Object[] stat : stats) {
-            Currency currency = (Currency) stat[0];
-            Long count = (Long) stat[1];
-            result.put(currency, count);
+        Map<Currency, Long> counts = statistics.currencyCounts();
+        if (counts != null) {
+            return counts;
         }
 
-        return result;
+        return coalesce(StatisticsQuery.CURRENCY, () -> {
+            List<Object[]> stats = clientRepository.countByCurrency();
+            Map<Currency, Long> result = new HashMap<>();
+
+            for (Object[] stat : stats) {
+                Currency currency = (Currency) stat[0];
+                Long count = (Long) stat[1];
+                result.put(currency, count);
+            }
+
+            return Collections.unmodifiableMap(result);
+        });
     }
 
     /**
-     * Получить статистику по гражданству
+     * Получить статистику по гражданству: из памяти, пока она не загружена — запросом к БД.
+     * Результат общий для одновременных вызовов, поэтому не изменяем.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<Nationality, Long> getNationalityStatistics() {
         log.debug("Получение статистики по гражданству");
 
-        List<Object[]> stats = clientRepository.countByNationality();
-        Map<Nationality, Long> result = new LinkedHashMap<>(); // Сохраняем порядок
-
-        for (Object[] stat : stats) {
-            Nationality nationality = (Nationality) stat[0];
-            Long count = (Long) stat[1];
-            result.put(nationality, count);
+        Map<Nationality, Long> counts = statistics.nationalityCounts();
+        if (counts != null) {
+            return counts;
         }
 
-        return result;
+        return coalesce(StatisticsQuery.NATIONALITY, () -> {
+            List<Object[]> stats = clientRepository.countByNationality();
+            Map<Nationality, Long> result = new LinkedHashMap<>(); // Сохраняем порядок
+
+            for (Object[] stat : stats) {
+                Nationality nationality = (Nationality) stat[0];
+                Long count = (Long) stat[1];
+                result.put(nationality, count);
+            }
+
+            return Collections.unmodifiableMap(result);
+        });
     }
 
     /**
-     * Получить последних зарегистрированных клиентов
+     * Выполнить запрос чтения или дождаться такого же, уже выполняющегося в другом потоке
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Object key, Supplier<T> loader) {
+        return (T) readFlights.execute(key, loader);
+    }
+
+    /**
+     * Получить последних зарегистрированных клиентов (из памяти, если кольцо загружено)
      */
     public List<ClientDTO> getRecentClients() {
         log.debug("Получение последних зарегистрированных клиентов");
 
-        List<Client> clients = clientRepository.findTop10ByOrderByCreatedAtDesc();
+        List<ClientDTO> recent = statistics.recentClients(RECENT_CLIENTS_LIMIT);
+        if (recent != null) {
+            return recent;
+        }
+
+        List<ClientRow> clients = clientRepository.findRecentRows(PageRequest.of(0, RECENT_CLIENTS_LIMIT));
         return clients.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Проверка уникальности полей при создании
+     * Запрос по ФИО: содержит слова и не содержит цифр (цифры ищутся по счету и телефону)
+     */
+    private boolean isNameQuery(String searchTerm) {
+        return searchTerm != null
+                && searchTerm.chars().noneMatch(Character::isDigit)
+                && TsQueryBuilder.prefixQuery(searchTerm) != null;
+    }
+
+    private List<Client> findChunk(ClientKeyType keyType, List<String> keys) {
+        return switch (keyType) {
+            case ID -> clientRepository.findAllById(keys.stream().map(ClientService::parseId).toList());
+            case ACCOUNT_NUMBER -> clientRepository.findByAccountNumberIn(keys);
+            case UNIQUE_ID -> clientRepository.findByUniqueIdIn(keys);
+        };
+    }
+
+    private static String keyOf(ClientKeyType keyType, ClientDTO client) {
+        return switch (keyType) {
+            case ID -> String.valueOf(client.getId());
+            case ACCOUNT_NUMBER -> client.getAccountNumber();
+            case UNIQUE_ID -> client.getUniqueId();
+        };
+    }
+
+    private static Long parseId(String key) {
+        try {
+            return Long.valueOf(key.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный ID клиента: " + key);
+        }
+    }
+
+    /**
+     * Проверка уникальности полей при создании; в БД идут только номера, которые
+     * фильтр уникальности не может отвергнуть (пропущенный повтор ловит {@link #saveUnique})
      */
     private void validateUniqueFields(ClientDTO clientDTO) {
         if (clientDTO.getAccountNumber() != null &&
+                uniquenessFilter.mightExistAccountNumber(clientDTO.getAccountNumber()) &&
                 clientRepository.existsByAccountNumber(clientDTO.getAccountNumber())) {
             throw new ClientAlreadyExistsException("Клиент с номером счета " +
                     clientDTO.getAccountNumber() + " уже существует");
         }
 
         if (clientDTO.getPhoneNumber() != null &&
+                uniquenessFilter.mightExistPhoneNumber(clientDTO.getPhoneNumber()) &&
                 clientRepository.existsByPhoneNumber(clientDTO.getPhoneNumber())) {
             throw new ClientAlreadyExistsException("Клиент с номером телефона " +
                     clientDTO.getPhoneNumber() + " уже существует");
         }
     }
 
+    /**
+     * Сохранение со сбросом в БД. Фильтр уникальности не знает о записях других узлов, пока
+     * их изменения не пришли по шине, поэтому повтор номера может обнаружить только
+     * ограничение уникальности таблицы — оно переводится в {@link ClientAlreadyExistsException}.
+     */
+    private Client saveUnique(Client client) {
+        try {
+            return clientRepository.saveAndFlush(client);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException violation ?
+                    violation.getConstraintName() : null;
+            if (ACCOUNT_NUMBER_CONSTRAINT.equalsIgnoreCase(constraint)) {
+                throw new ClientAlreadyExistsException("Клиент с номером счета " +
+                        client.getAccountNumber() + " уже существует", e);
+            }
+            if (PHONE_NUMBER_CONSTRAINT.equalsIgnoreCase(constraint)) {
+                throw new ClientAlreadyExistsException("Клиент с номером телефона " +
+                        client.getPhoneNumber() + " уже существует", e);
+            }
+            throw e;
+        }
+    }
+
     /**
      * Проверка уникальности полей при обновлении
      */
     private void validateUniqueFieldsForUpdate(ClientDTO clientDTO, Client existingClient) {
         // Проверяем номер счета, если он изменился
         if (!existingClient.getAccountNumber().equals(clientDTO.getAccountNumber()) &&
+                uniquenessFilter.mightExistAccountNumber(clientDTO.getAccountNumber()) &&
                 clientRepository.existsByAccountNumber(clientDTO.getAccountNumber())) {
             throw new ClientAlreadyExistsException("Клиент с номером счета " +
                     clientDTO.getAccountNumber() + " уже существует");
@@ -248,6 +927,7 @@ public class ClientService {
 
         // Проверяем телефон, если он изменился
         if (!existingClient.getPhoneNumber().equals(clientDTO.getPhoneNumber()) &&
+                uniquenessFilter.mightExistPhoneNumber(clientDTO.getPhoneNumber()) &&
                 clientRepository.existsByPhoneNumber(clientDTO.getPhoneNumber())) {
             throw new ClientAlreadyExistsException("Клиент с номером телефона " +
                     clientDTO.getPhoneNumber() + " уже существует");
@@ -284,6 +964,31 @@ public class ClientService {
         }
     }
 
+    /**
+     * Строки клиентов по ID в порядке входного списка (отсутствующие пропускаются)
+     */
+    private List<ClientDTO> loadRows(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ClientRow> rows = new HashMap<>(ids.size() * 2);
+        for (ClientRow row : clientRepository.findRowsByIdIn(ids)) {
+            rows.put(row.id(), row);
+        }
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Конвертация проекции строки в DTO
+     */
+    private ClientDTO convertToDTO(ClientRow row) {
+        return row.toDTO();
+    }
+
     /**
      * Конвертация Entity в DTO
      */
@@ -304,6 +1009,7 @@ public class ClientService {
                 .phoneNumber(client.getPhoneNumber())
                 .createdAt(client.getCreatedAt())
                 .updatedAt(client.getUpdatedAt())
+                .version(client.getVersion())
                 .build();
     }
 
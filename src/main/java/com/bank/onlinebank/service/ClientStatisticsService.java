@@ -0,0 +1,346 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.dto.ClientRow;
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.bank.onlinebank.repository.ClientRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Статистика клиентов для главной страницы, поддерживаемая в памяти.
+ * <p>
+ * Количество клиентов по валютам и гражданству и последние зарегистрированные клиенты
+ * загружаются при старте и дальше обновляются по {@link ClientChangedEvent}, поэтому
+ * ответ не зависит от размера таблицы. Счетчики — {@link EnumMap} с заранее созданными
+ * {@link AtomicLong} на каждое значение, последние клиенты — кольцо на
+ * {@link AtomicReferenceArray}; и то и другое обновляется без блокировок.
+ * </p>
+ * <p>
+ * Данные периодически и после потери изменений других узлов перезагружаются из БД;
+ * до замены ответы отдаются из прежних счетчиков. События, пришедшие во время загрузки,
+ * запоминаются и применяются к новым данным перед публикацией. Запоминание начинается
+ * до снимка транзакции загрузки, поэтому изменение, закоммиченное в момент ее начала,
+ * может быть учтено дважды; такое расхождение исправляет следующая сверка.
+ * Пока данные не загружены, методы возвращают null и статистика считается запросом к БД.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientStatisticsService {
+
+    private final ClientRepository clientRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+
+    @Value("${app.statistics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.statistics.recent-capacity:50}")
+    private int recentCapacity;
+
+    private TransactionTemplate snapshotTransaction;
+
+    private volatile Counters counters;
+    private volatile RecentRing recent;
+
+    /**
+     * Изменения, пришедшие во время загрузки; изменяются под changeLock
+     */
+    private final Object changeLock = new Object();
+    private final ArrayDeque<ClientChangedEvent> changedDuringLoad = new ArrayDeque<>();
+    private boolean loading;
+
+    /**
+     * Счетчики клиентов по валютам и гражданству; набор ключей не меняется после создания
+     */
+    private static final class Counters {
+
+        private final EnumMap<Currency, AtomicLong> currency = new EnumMap<>(Currency.class);
+        private final EnumMap<Nationality, AtomicLong> nationality = new EnumMap<>(Nationality.class);
+
+        private Counters() {
+            for (Currency value : Currency.values()) {
+                currency.put(value, new AtomicLong());
+            }
+            for (Nationality value : Nationality.values()) {
+                nationality.put(value, new AtomicLong());
+            }
+        }
+
+        private void add(ClientDTO client, long delta) {
+            if (client.getCurrency() != null) {
+                currency.get(client.getCurrency()).addAndGet(delta);
+            }
+            if (client.getNationality() != null) {
+                nationality.get(client.getNationality()).addAndGet(delta);
+            }
+        }
+
+        private long total() {
+            return currency.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+    }
+
+    /**
+     * Кольцо последних созданных клиентов: новая запись занимает следующую ячейку,
+     * изменение и удаление заменяют ячейку с тем же ID через CAS
+     */
+    private static final class RecentRing {
+
+        private final AtomicReferenceArray<ClientDTO> slots;
+        private final AtomicLong head = new AtomicLong();
+
+        private RecentRing(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        /**
+         * Добавить клиента; уже загруженный клиент (повтор события) заменяется на месте
+         */
+        private void add(ClientDTO client) {
+            if (!replace(client.getId(), client)) {
+                slots.set((int) (head.getAndIncrement() % slots.length()), client);
+            }
+        }
+
+        private boolean replace(Long id, ClientDTO client) {
+            boolean found = false;
+            for (int i = 0; i < slots.length(); i++) {
+                ClientDTO slot = slots.get(i);
+                if (slot != null && Objects.equals(slot.getId(), id)) {
+                    slots.compareAndSet(i, slot, client);
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        private List<ClientDTO> snapshot() {
+            List<ClientDTO> clients = new ArrayList<>(slots.length());
+            for (int i = 0; i < slots.length(); i++) {
+                ClientDTO slot = slots.get(i);
+                if (slot != null) {
+                    clients.add(slot);
+                }
+            }
+            clients.sort(Comparator.comparing(ClientDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(ClientDTO::getId, Comparator.reverseOrder()));
+            return clients;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Счетчики и последние клиенты читаются из одного снимка таблицы
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Загрузка статистики при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Периодическая сверка с БД
+     */
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval:5m}",
+            fixedDelayString = "${app.statistics.reconcile-interval:5m}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        if (!databaseHealthIndicator.isHealthy()) {
+            log.debug("База данных недоступна, сверка статистики клиентов пропущена");
+            return;
+        }
+
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Ошибка при загрузке статистики клиентов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Количество клиентов по валютам; null, если статистика не загружена
+     */
+    public Map<Currency, Long> currencyCounts() {
+        Counters current = counters;
+        if (current == null) {
+            return null;
+        }
+        Map<Currency, Long> result = new EnumMap<>(Currency.class);
+        current.currency.forEach((currency, count) -> {
+            if (count.get() > 0) {
+                result.put(currency, count.get());
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Количество клиентов по гражданству по убыванию; null, если статистика не загружена
+     */
+    public Map<Nationality, Long> nationalityCounts() {
+        Counters current = counters;
+        if (current == null) {
+            return null;
+        }
+        Map<Nationality, Long> result = new LinkedHashMap<>();
+        current.nationality.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<Nationality, Long>comparingByValue().reversed())
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Последние зарегистрированные клиенты; null, если кольцо не загружено
+     * или после удалений в нем осталось меньше клиентов, чем нужно
+     */
+    public List<ClientDTO> recentClients(int limit) {
+        RecentRing ring = recent;
+        Counters current = counters;
+        if (ring == null || current == null) {
+            return null;
+        }
+        List<ClientDTO> clients = ring.snapshot();
+        if (clients.size() < limit && clients.size() < current.total()) {
+            return null;
+        }
+        return clients.size() > limit ? new ArrayList<>(clients.subList(0, limit)) : clients;
+    }
+
+    /**
+     * Применение изменения клиента после коммита
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        Counters current;
+        RecentRing ring;
+        synchronized (changeLock) {
+            if (loading) {
+                changedDuringLoad.add(event);
+            }
+            current = counters;
+            ring = recent;
+        }
+        if (current != null && ring != null) {
+            apply(current, ring, event);
+        }
+    }
+
+    private static void apply(Counters current, RecentRing ring, ClientChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                current.add(event.current(), 1);
+                ring.add(event.current());
+            }
+            case UPDATED -> {
+                current.add(event.previous(), -1);
+                current.add(event.current(), 1);
+                ring.replace(event.clientId(), event.current());
+            }
+            case DELETED -> {
+                current.add(event.previous(), -1);
+                ring.replace(event.clientId(), null);
+            }
+        }
+    }
+
+    /**
+     * Изменения других узлов могли быть пропущены: статистика перезагружается из БД,
+     * до замены ответы отдаются из прежних данных. Выполняется асинхронно, чтобы запросы
+     * сверки не задерживали поток шины инвалидации; идущая в этот момент загрузка могла
+     * прочитать таблицу до пропущенных изменений, поэтому после нее загрузка повторяется.
+     */
+    @Async
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        reconcile();
+    }
+
+    /**
+     * Загрузить статистику и применить к ней изменения, закоммиченные во время загрузки
+     */
+    private synchronized void reload() {
+        synchronized (changeLock) {
+            loading = true;
+            changedDuringLoad.clear();
+        }
+        try {
+            RecentRing ring = new RecentRing(recentCapacity);
+            Counters fresh = snapshotTransaction.execute(status -> {
+                Counters loaded = new Counters();
+                for (Object[] stat : clientRepository.countByCurrency()) {
+                    loaded.currency.get((Currency) stat[0]).set((Long) stat[1]);
+                }
+                for (Object[] stat : clientRepository.countByNationality()) {
+                    loaded.nationality.get((Nationality) stat[0]).set((Long) stat[1]);
+                }
+
+                List<ClientRow> rows = clientRepository.findRecentRows(PageRequest.of(0, recentCapacity));
+                for (int i = rows.size() - 1; i >= 0; i--) {
+                    ring.add(rows.get(i).toDTO());
+                }
+                return loaded;
+            });
+
+            Counters previous;
+            int replayed;
+            synchronized (changeLock) {
+                replayed = changedDuringLoad.size();
+                changedDuringLoad.forEach(event -> apply(fresh, ring, event));
+                previous = counters;
+                counters = fresh;
+                recent = ring;
+            }
+
+            if (previous != null && previous.total() != fresh.total()) {
+                log.info("Статистика клиентов расходилась с БД: {} в памяти, {} в БД", previous.total(), fresh.total());
+            }
+            log.debug("Статистика клиентов загружена: {} клиентов, применено изменений: {}", fresh.total(), replayed);
+        } finally {
+            synchronized (changeLock) {
+                loading = false;
+                changedDuringLoad.clear();
+            }
+        }
+    }
+}
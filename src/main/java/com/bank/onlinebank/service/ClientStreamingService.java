@@ -0,0 +1,215 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.entity.Client;
+import com.bank.onlinebank.util.ClientCursor;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Потоковая выдача списка клиентов в JSON без промежуточных объектов.
+ * <p>
+ * Строки читаются курсором PostgreSQL (forward-only ResultSet с fetch size внутри
+ * read-only транзакции) и сразу пишутся токенами Jackson в выходной поток ответа,
+ * минуя сущность, DTO и {@code Page}. Память не зависит от размера страницы: в ней
+ * одновременно держится не больше одной порции строк драйвера и буфер генератора.
+ * </p>
+ * <p>
+ * Формат совпадает с {@link com.bank.onlinebank.dto.PageEnvelope}: {@code items},
+ * {@code page}, {@code size}, {@code hasNext}. Элементы содержат хранимые поля
+ * клиента и вычисляемые fullName, shortName и age; поля отображения
+ * (currencyDisplay и т.п.) не выводятся.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientStreamingService {
+
+    private static final String SELECT_ROWS =
+            "SELECT id, unique_id, last_name, first_name, middle_name, birth_date, account_number, " +
+            "currency, nationality, phone_number, created_at, updated_at, version FROM clients ";
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.client-stream.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.client-stream.flush-rows:1000}")
+    private int flushRows;
+
+    private NamedParameterJdbcTemplate streamingTemplate;
+
+    @PostConstruct
+    public void init() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        streamingTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Записать страницу клиентов в поток; возвращает количество выведенных клиентов.
+     * <p>
+     * Ответ пишется по мере чтения, поэтому ошибка в середине выдачи обрывает
+     * уже начатый ответ, а не превращается в статус 500. Генератор не дописывает
+     * незакрытые массив и объект и не закрывает поток ответа: клиент получает
+     * синтаксически неполный JSON, а не корректный, но усеченный список.
+     * </p>
+     */
+    @Transactional(readOnly = true)
+    public long writeClients(int page, int size, String sort, Sort.Direction direction,
+                             OutputStream out) throws IOException {
+        if (page < 0) {
+            throw new IllegalArgumentException("Номер страницы не может быть отрицательным");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть больше нуля");
+        }
+
+        String sql = SELECT_ROWS + orderBy(ClientCursor.SortField.fromProperty(sort), direction)
+                + " LIMIT :limit OFFSET :offset";
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", (long) size + 1)
+                .addValue("offset", (long) page * size);
+
+        log.debug("Потоковая выдача клиентов: страница {}, размер {}, сортировка {} {}",
+                page, size, sort, direction);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+
+            RowWriter rowWriter = new RowWriter(generator, size);
+            try {
+                streamingTemplate.query(sql, params, rowWriter);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+            generator.writeNumberField("page", page);
+            generator.writeNumberField("size", size);
+            generator.writeBooleanField("hasNext", rowWriter.hasNext);
+            generator.writeEndObject();
+            return rowWriter.written;
+        }
+    }
+
+    /**
+     * ORDER BY по разрешенному полю с ID как тай-брейкером (для каждого поля есть индекс (поле, id))
+     */
+    private static String orderBy(ClientCursor.SortField sortField, Sort.Direction direction) {
+        String column = switch (sortField) {
+            case LAST_NAME -> "last_name";
+            case BIRTH_DATE -> "birth_date";
+            case CREATED_AT -> "created_at";
+            case ID -> "id";
+        };
+        String order = direction.isAscending() ? "ASC" : "DESC";
+        return sortField == ClientCursor.SortField.ID ?
+                "ORDER BY id " + order :
+                "ORDER BY " + column + " " + order + ", id " + order;
+    }
+
+    /**
+     * Запись строк ResultSet токенами JSON; лишняя (size + 1)-я строка только отмечает наличие следующей страницы
+     */
+    private final class RowWriter implements RowCallbackHandler {
+
+        private final JsonGenerator generator;
+        private final int limit;
+        private long written;
+        private boolean hasNext;
+
+        private RowWriter(JsonGenerator generator, int limit) {
+            this.generator = generator;
+            this.limit = limit;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (written == limit) {
+                hasNext = true;
+                return;
+            }
+            try {
+                writeRow(rs);
+                written++;
+                if (written % flushRows == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeRow(ResultSet rs) throws SQLException, IOException {
+            String lastName = rs.getString("last_name");
+            String firstName = rs.getString("first_name");
+            String middleName = rs.getString("middle_name");
+            LocalDate birthDate = rs.getObject("birth_date", LocalDate.class);
+
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("uniqueId", rs.getString("unique_id"));
+            generator.writeStringField("lastName", lastName);
+            generator.writeStringField("firstName", firstName);
+            generator.writeStringField("middleName", middleName);
+            generator.writeStringField("fullName", Client.fullName(lastName, firstName, middleName));
+            generator.writeStringField("shortName", Client.shortName(lastName, firstName, middleName));
+            writeDate("birthDate", birthDate);
+            generator.writeFieldName("age");
+            if (birthDate != null) {
+                generator.writeNumber(Client.age(birthDate));
+            } else {
+                generator.writeNull();
+            }
+            generator.writeStringField("accountNumber", rs.getString("account_number"));
+            generator.writeStringField("currency", rs.getString("currency"));
+            generator.writeStringField("nationality", rs.getString("nationality"));
+            generator.writeStringField("phoneNumber", rs.getString("phone_number"));
+            writeDateTime("createdAt", rs.getObject("created_at", LocalDateTime.class));
+            writeDateTime("updatedAt", rs.getObject("updated_at", LocalDateTime.class));
+            long version = rs.getLong("version");
+            generator.writeFieldName("version");
+            if (rs.wasNull()) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(version);
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeDate(String field, LocalDate value) throws IOException {
+            generator.writeStringField(field, value != null ? DateTimeFormatter.ISO_LOCAL_DATE.format(value) : null);
+        }
+
+        private void writeDateTime(String field, LocalDateTime value) throws IOException {
+            generator.writeStringField(field, value != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) : null);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.bank.onlinebank.repository.ClientRepository;
+import com.bank.onlinebank.util.PrefixIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис автодополнения для строки поиска клиентов.
+ * <p>
+ * Держит в памяти префиксный индекс фамилий, имен и отчеств. Индекс строится
+ * при старте и далее обновляется по событиям {@link ClientChangedEvent}, поэтому
+ * подсказки отдаются без обращения к PostgreSQL. Запрос подсказок никогда не строит
+ * индекс сам: пока индекса нет (например, БД была недоступна при старте), подсказок нет,
+ * а построение повторяется периодической задачей.
+ * </p>
+ * <p>
+ * После потери изменений других узлов индекс строится заново в фоне, а до замены
+ * подсказки отдаются из прежнего. События, пришедшие во время загрузки, запоминаются
+ * и применяются к новому индексу перед публикацией. Запоминание начинается до снимка
+ * транзакции загрузки, поэтому изменение, закоммиченное в момент ее начала, может быть
+ * учтено дважды; такие расхождения частот исправляет периодическое перестроение.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientSuggestService {
+
+    private final ClientRepository clientRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+
+    private TransactionTemplate snapshotTransaction;
+
+    private volatile PrefixIndex index;
+    private volatile boolean stale = false;
+
+    /**
+     * Изменения, пришедшие во время загрузки; изменяются под changeLock
+     */
+    private final Object changeLock = new Object();
+    private final ArrayDeque<ClientChangedEvent> changedDuringLoad = new ArrayDeque<>();
+    private boolean loading;
+    private boolean lostDuringLoad;
+
+    @PostConstruct
+    public void init() {
+        // Три запроса частот читают один снимок таблицы
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Построение индекса при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!databaseHealthIndicator.isHealthy()) {
+            log.warn("База данных недоступна. Индекс автодополнения будет построен периодической задачей");
+            return;
+        }
+        loadQuietly();
+    }
+
+    /**
+     * Построение индекса, если его нет или он мог разойтись с БД после потери изменений
+     */
+    @Scheduled(initialDelayString = "${app.search.suggest.retry-interval:30s}",
+            fixedDelayString = "${app.search.suggest.retry-interval:30s}")
+    public void loadIfMissing() {
+        if (index == null || stale) {
+            loadQuietly();
+        }
+    }
+
+    /**
+     * Периодическое перестроение для сверки частот с БД
+     */
+    @Scheduled(initialDelayString = "${app.search.suggest.rebuild-interval:1h}",
+            fixedDelayString = "${app.search.suggest.rebuild-interval:1h}")
+    public void loadQuietly() {
+        if (!databaseHealthIndicator.isHealthy()) {
+            return;
+        }
+        try {
+            load();
+        } catch (Exception e) {
+            log.error("Ошибка при построении индекса автодополнения: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Подсказки для строки поиска; пустой список, пока индекс не построен.
+     * Дополняется последнее слово запроса; предыдущие слова сохраняются в тексте подсказки.
+     */
+    public List<PrefixIndex.Suggestion> suggest(String query, int limit) {
+        PrefixIndex current = index;
+        if (query == null || query.isBlank() || current == null) {
+            return List.of();
+        }
+
+        String trimmed = query.strip();
+        int lastSpace = trimmed.lastIndexOf(' ');
+        String head = lastSpace >= 0 ? trimmed.substring(0, lastSpace + 1) : "";
+        String prefix = trimmed.substring(lastSpace + 1);
+
+        List<PrefixIndex.Suggestion> suggestions = current.suggest(prefix, limit);
+        if (head.isEmpty()) {
+            return suggestions;
+        }
+        return suggestions.stream()
+                .map(s -> new PrefixIndex.Suggestion(head + s.text(), s.count()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Количество различных слов в индексе
+     */
+    public int getIndexSize() {
+        PrefixIndex current = index;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * Обновление индекса после коммита изменения клиента
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        PrefixIndex current;
+        synchronized (changeLock) {
+            if (loading) {
+                changedDuringLoad.add(event);
+            }
+            current = index;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    /**
+     * Изменения других узлов могли быть пропущены: индекс строится заново в фоне,
+     * до замены подсказки отдаются из прежнего
+     */
+    @Async
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        synchronized (changeLock) {
+            stale = true;
+            // Строящийся индекс мог прочитать таблицу до пропущенных изменений
+            lostDuringLoad |= loading;
+        }
+        loadQuietly();
+    }
+
+    /**
+     * Построить индекс и применить к нему изменения, закоммиченные во время загрузки
+     */
+    private synchronized void load() {
+        long startTime = System.currentTimeMillis();
+        synchronized (changeLock) {
+            loading = true;
+            lostDuringLoad = false;
+            changedDuringLoad.clear();
+        }
+        try {
+            PrefixIndex newIndex = snapshotTransaction.execute(status -> {
+                PrefixIndex built = new PrefixIndex();
+                addCounts(built, clientRepository.countByLastName());
+                addCounts(built, clientRepository.countByFirstName());
+                addCounts(built, clientRepository.countByMiddleName());
+                return built;
+            });
+
+            int replayed;
+            synchronized (changeLock) {
+                replayed = changedDuringLoad.size();
+                changedDuringLoad.forEach(event -> apply(newIndex, event));
+                index = newIndex;
+                stale = lostDuringLoad;
+            }
+
+            log.info("Индекс автодополнения построен: {} слов за {} мс, применено изменений: {}",
+                    newIndex.size(), System.currentTimeMillis() - startTime, replayed);
+        } finally {
+            synchronized (changeLock) {
+                loading = false;
+                changedDuringLoad.clear();
+            }
+        }
+    }
+
+    private void apply(PrefixIndex target, ClientChangedEvent event) {
+        if (event.previous() != null) {
+            forEachName(event.previous(), target::remove);
+        }
+        if (event.current() != null) {
+            forEachName(event.current(), target::add);
+        }
+    }
+
+    private void addCounts(PrefixIndex target, List<Object[]> counts) {
+        for (Object[] row : counts) {
+            target.add((String) row[0], (Long) row[1]);
+        }
+    }
+
+    private void forEachName(ClientDTO client, Consumer<String> action) {
+        action.accept(client.getLastName());
+        action.accept(client.getFirstName());
+        if (client.getMiddleName() != null) {
+            action.accept(client.getMiddleName());
+        }
+    }
+}
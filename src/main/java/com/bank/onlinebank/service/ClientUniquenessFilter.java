@@ -0,0 +1,201 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.dto.ClientDTO;
+import com.bank.onlinebank.event.ClientChangedEvent;
+import com.bank.onlinebank.event.ClientChangesLostEvent;
+import com.bank.onlinebank.repository.ClientRepository;
+import com.bank.onlinebank.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Фильтры Блума по существующим номерам счетов и телефонов.
+ * <p>
+ * Позволяют пропустить запрос {@code exists...} к БД при проверке уникальности: если фильтр
+ * отвечает «нет», такого номера точно нет; на «возможно» проверка идет в БД как раньше.
+ * Фильтры строятся потоковым чтением при старте и пополняются по {@link ClientChangedEvent}.
+ * Номера удаленных клиентов остаются в фильтре и дают лишь лишнюю проверку в БД до следующего
+ * построения. Номера, только что добавленные другими узлами, фильтр может еще не знать (шина
+ * отстает или теряет уведомления): такой повтор отвергает ограничение уникальности таблицы,
+ * и {@link ClientService} отвечает тем же {@code ClientAlreadyExistsException}.
+ * Пока фильтры не построены, все проверки идут в БД. Результаты проверок публикуются
+ * как {@code client.uniqueness.checks{field, outcome}}.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientUniquenessFilter {
+
+    /**
+     * Пара фильтров, строящихся и подменяемых вместе
+     */
+    private record Filters(BloomFilter accountNumbers, BloomFilter phoneNumbers) {
+
+        private void add(ClientDTO client) {
+            accountNumbers.put(client.getAccountNumber());
+            phoneNumbers.put(client.getPhoneNumber());
+        }
+    }
+
+    private final ClientRepository clientRepository;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.uniqueness-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.uniqueness-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.uniqueness-filter.min-capacity:100000}")
+    private long minCapacity;
+
+    private volatile Filters ready;
+    private volatile Filters building;
+
+    private Counter accountSkipped;
+    private Counter accountChecked;
+    private Counter phoneSkipped;
+    private Counter phoneChecked;
+
+    @PostConstruct
+    public void registerMetrics() {
+        accountSkipped = checks("account_number", "skipped");
+        accountChecked = checks("account_number", "database");
+        phoneSkipped = checks("phone_number", "skipped");
+        phoneChecked = checks("phone_number", "database");
+    }
+
+    /**
+     * Построение фильтров при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (!databaseHealthIndicator.isHealthy()) {
+            log.warn("База данных недоступна. Фильтры уникальности не построены, проверки идут в БД");
+            return;
+        }
+
+        try {
+            rebuild();
+        } catch (Exception e) {
+            building = null;
+            log.error("Ошибка при построении фильтров уникальности: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Перестроить фильтры потоковым чтением всех номеров
+     */
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        long capacity = Math.max(minCapacity, clientRepository.count() * 2);
+        Filters filters = new Filters(new BloomFilter(capacity, falsePositiveRate),
+                new BloomFilter(capacity, falsePositiveRate));
+
+        // Записи, закоммиченные во время чтения, попадут в фильтр через onClientChanged
+        building = filters;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Long count = transactionTemplate.execute(status -> {
+            long rows = 0;
+            try (Stream<Object[]> keys = clientRepository.streamUniqueKeys()) {
+                for (Object[] row : (Iterable<Object[]>) keys::iterator) {
+                    filters.accountNumbers().put((String) row[0]);
+                    filters.phoneNumbers().put((String) row[1]);
+                    rows++;
+                }
+            }
+            return rows;
+        });
+
+        ready = filters;
+        building = null;
+        log.info("Фильтры уникальности построены: {} клиентов, {} бит на фильтр, за {} мс",
+                count, filters.accountNumbers().bitSize(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * false — клиента с таким номером счета точно нет; true — нужна проверка в БД
+     */
+    public boolean mightExistAccountNumber(String accountNumber) {
+        Filters filters = ready;
+        if (filters != null && !filters.accountNumbers().mightContain(accountNumber)) {
+            accountSkipped.increment();
+            return false;
+        }
+        accountChecked.increment();
+        return true;
+    }
+
+    /**
+     * false — клиента с таким номером телефона точно нет; true — нужна проверка в БД
+     */
+    public boolean mightExistPhoneNumber(String phoneNumber) {
+        Filters filters = ready;
+        if (filters != null && !filters.phoneNumbers().mightContain(phoneNumber)) {
+            phoneSkipped.increment();
+            return false;
+        }
+        phoneChecked.increment();
+        return true;
+    }
+
+    /**
+     * Добавление номеров созданного или измененного клиента после коммита
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        ClientDTO current = event.current();
+        if (current == null) {
+            return;
+        }
+
+        Filters pending = building;
+        if (pending != null) {
+            pending.add(current);
+        }
+        Filters filters = ready;
+        if (filters != null && filters != pending) {
+            filters.add(current);
+        }
+    }
+
+    /**
+     * Номера, добавленные другими узлами, могли быть пропущены: до перестроения все проверки идут в БД.
+     * Выполняется асинхронно, чтобы перестроение не задерживало поток шины инвалидации.
+     */
+    @Async
+    @EventListener
+    public void onChangesLost(ClientChangesLostEvent event) {
+        ready = null;
+        buildOnStartup();
+    }
+
+    private Counter checks(String field, String outcome) {
+        return Counter.builder("client.uniqueness.checks")
+                .description("Uniqueness checks answered by the Bloom filter or sent to the database")
+                .tag("field", field)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -34,6 +34,7 @@ public class HealthCheckService {
     private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
     private final DataSource dataSource;
     private final JdbcTemplate jdbcTemplate;
+    private final ClientHotKeyTracker hotKeyTracker;
 
     @Value("${spring.application.name:OnlineBank}")
     private String applicationName;
@@ -253,6 +254,7 @@ public class HealthCheckService {
         });
 
         metrics.setEndpointMetrics(endpointMetrics);
+        metrics.setHotKeys(hotKeyTracker.topKeys());
 
         return metrics;
     }
@@ -0,0 +1,91 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.config.DatabaseConfig;
+import com.bank.onlinebank.entity.Client;
+import com.bank.onlinebank.repository.ClientRepository;
+import com.bank.onlinebank.util.RussianMetaphone;
+import com.bank.onlinebank.util.Transliterator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Заполнение ключей поиска для клиентов, созданных до появления соответствующих колонок.
+ * <p>
+ * Новые и измененные клиенты получают ключи в {@code @PrePersist}/{@code @PreUpdate}
+ * сущности; здесь при старте пачками досчитываются только записи с пустым ключом.
+ * Досчет не меняет ни версию, ни updated_at клиента: триггер пропускает обновления,
+ * затрагивающие только производные колонки поиска, поэтому клиенты не выглядят
+ * измененными ни в API, ни для инкрементального обновления колоночного снимка.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchKeyBackfillService {
+
+    private final ClientRepository clientRepository;
+    private final DatabaseConfig.DatabaseHealthIndicator databaseHealthIndicator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.backfill.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Досчитать ключи поиска при старте приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!databaseHealthIndicator.isHealthy()) {
+            log.warn("База данных недоступна. Заполнение ключей поиска пропущено");
+            return;
+        }
+
+        try {
+            long startTime = System.currentTimeMillis();
+            long updated = backfill();
+            if (updated > 0) {
+                log.info("Ключи поиска заполнены для {} клиентов за {} мс",
+                        updated, System.currentTimeMillis() - startTime);
+            }
+        } catch (Exception e) {
+            log.error("Ошибка при заполнении ключей поиска: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Заполнить ключи поиска пачками, каждая пачка — отдельная транзакция
+     *
+     * @return количество обновленных клиентов
+     */
+    public long backfill() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long total = 0;
+
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<Client> batch = clientRepository.findWithoutSearchKey(PageRequest.of(0, batchSize));
+                for (Client client : batch) {
+                    clientRepository.updateSearchKey(client.getId(),
+                            Transliterator.searchKey(client.getLastName(), client.getFirstName(), client.getMiddleName()),
+                            RussianMetaphone.encode(client.getLastName()));
+                }
+                return batch.size();
+            });
+
+            if (updated == null || updated == 0) {
+                return total;
+            }
+            total += updated;
+            log.debug("Заполнены ключи поиска: {} клиентов", total);
+        }
+    }
+}
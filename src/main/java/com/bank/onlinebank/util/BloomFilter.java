@@ -0,0 +1,100 @@
+package com.bank.onlinebank.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума для строковых ключей.
+ * <p>
+ * Ответ «нет» точен: ключ гарантированно не добавлялся. Ответ «возможно» ошибочен
+ * с вероятностью, заданной при создании (при условии, что число ключей не превысило
+ * ожидаемое). Позиции битов считаются двойным хешированием от одного 128-битного
+ * хеша {@link MurmurHash3}; биты хранятся в {@link AtomicLongArray}, поэтому добавление
+ * и проверка идут без блокировок. Удаление ключей не поддерживается.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions ожидаемое количество ключей
+     * @param falsePositiveRate  допустимая доля ложных срабатываний, от 0 до 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Ожидаемое количество ключей должно быть больше нуля");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Доля ложных срабатываний должна быть в интервале (0, 1)");
+        }
+
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Добавить ключ; null игнорируется
+     */
+    public void put(String key) {
+        if (key == null) {
+            return;
+        }
+        long[] hash = MurmurHash3.hash128(key);
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            setBit(index);
+            combined += hash[1];
+        }
+    }
+
+    /**
+     * false — ключ точно не добавлялся; true — возможно, добавлялся
+     */
+    public boolean mightContain(String key) {
+        if (key == null) {
+            return false;
+        }
+        long[] hash = MurmurHash3.hash128(key);
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * Размер фильтра в битах
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * Количество хеш-функций
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+}
@@ -0,0 +1,123 @@
+package com.bank.onlinebank.util;
+
+import com.bank.onlinebank.dto.ClientDTO;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации клиентов.
+ * <p>
+ * Хранит поле и направление сортировки, значение ключа сортировки последней
+ * записи страницы и её ID. Следующая страница начинается строго после пары
+ * (значение, ID), поэтому запрос идет по индексу без OFFSET.
+ * </p>
+ */
+public record ClientCursor(SortField sortField, Sort.Direction direction, Comparable<?> value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Поля, по которым поддерживается keyset-пагинация (для каждого есть индекс вида (поле, id))
+     */
+    public enum SortField {
+        LAST_NAME("lastName", raw -> raw, ClientDTO::getLastName),
+        BIRTH_DATE("birthDate", LocalDate::parse, ClientDTO::getBirthDate),
+        CREATED_AT("createdAt", LocalDateTime::parse, ClientDTO::getCreatedAt),
+        ID("id", Long::valueOf, ClientDTO::getId);
+
+        private final String property;
+        private final Function<String, Comparable<?>> parser;
+        private final Function<ClientDTO, Comparable<?>> extractor;
+
+        SortField(String property, Function<String, Comparable<?>> parser,
+                  Function<ClientDTO, Comparable<?>> extractor) {
+            this.property = property;
+            this.parser = parser;
+            this.extractor = extractor;
+        }
+
+        /**
+         * Получить имя свойства сущности Client
+         */
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * Найти поле сортировки по имени свойства
+         */
+        public static SortField fromProperty(String property) {
+            return Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Сортировка по полю '" + property + "' не поддерживается для курсорной пагинации"));
+        }
+    }
+
+    /**
+     * Построить курсор, указывающий на позицию после переданного клиента
+     */
+    public static ClientCursor after(ClientDTO client, SortField sortField, Sort.Direction direction) {
+        return new ClientCursor(sortField, direction, sortField.extractor.apply(client), client.getId());
+    }
+
+    /**
+     * Сортировка для seek-запроса: ключ сортировки и ID как уникальный тай-брейкер
+     */
+    public static Sort seekSort(SortField sortField, Sort.Direction direction) {
+        if (sortField == SortField.ID) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, sortField.property).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Закодировать курсор в непрозрачный URL-safe токен
+     */
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Раскодировать токен, полученный от клиента API
+     */
+    public static ClientCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Некорректный курсор пагинации");
+            }
+
+            SortField sortField = SortField.valueOf(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Long id = Long.valueOf(parts[2]);
+
+            return new ClientCursor(sortField, direction, sortField.parser.apply(parts[3]), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор пагинации", e);
+        }
+    }
+
+    /**
+     * Раскодировать токен и проверить, что он выдан для той же сортировки.
+     * Поле или направление, равные null, не проверяются (берутся из курсора).
+     */
+    public static ClientCursor decode(String token, SortField expectedField, Sort.Direction expectedDirection) {
+        ClientCursor cursor = decode(token);
+        if ((expectedField != null && expectedField != cursor.sortField())
+                || (expectedDirection != null && expectedDirection != cursor.direction())) {
+            throw new IllegalArgumentException("Курсор пагинации выдан для другой сортировки");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.onlinebank.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбор параметра fields= для выборки части полей клиента.
+ * <p>
+ * Допускаются только хранимые атрибуты сущности: вычисляемые поля DTO
+ * (fullName, age, currencyDisplay и т.п.) требуют всей строки и не поддерживаются.
+ * </p>
+ */
+public final class ClientFieldSelection {
+
+    /**
+     * Поля, доступные для выборки, в порядке вывода в описании ошибки
+     */
+    public static final List<String> SELECTABLE_FIELDS = List.of(
+            "id", "uniqueId", "lastName", "firstName", "middleName", "birthDate", "accountNumber",
+            "currency", "nationality", "phoneNumber", "createdAt", "updatedAt", "version");
+
+    private ClientFieldSelection() {
+    }
+
+    /**
+     * Список полей из строки вида "id,lastName,accountNumber" без повторов, в порядке запроса
+     *
+     * @throws IllegalArgumentException если список пуст или содержит неизвестное поле
+     */
+    public static List<String> parse(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!SELECTABLE_FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Неизвестное поле '" + name + "'. Допустимые поля: "
+                            + String.join(", ", SELECTABLE_FIELDS));
+                }
+                parsed.add(name);
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Параметр fields должен содержать хотя бы одно поле");
+        }
+        return new ArrayList<>(parsed);
+    }
+}
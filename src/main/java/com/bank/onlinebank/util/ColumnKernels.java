@@ -0,0 +1,136 @@
+package com.bank.onlinebank.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Вычислительные ядра для колоночного снимка клиентов.
+ * <p>
+ * Ядро получает фрагмент колонок, скопированный из off-heap буферов в переиспользуемые
+ * массивы, отбирает строки по условиям и накапливает количество, распределения по валюте
+ * и гражданству и количество родившихся не позже каждой из заданных дат (из них
+ * получается распределение по возрасту). Коды валюты и гражданства — {@code ordinal + 1},
+ * 0 означает пустую строку (удаленный клиент или пропуск в последовательности ID).
+ * </p>
+ * <p>
+ * {@link #create(boolean)} выбирает реализацию на Vector API, если модуль
+ * {@code jdk.incubator.vector} подключен ({@code --add-modules jdk.incubator.vector}),
+ * иначе — скалярную. Обе дают одинаковый результат.
+ * </p>
+ */
+@Slf4j
+public abstract class ColumnKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_IMPLEMENTATION = "com.bank.onlinebank.util.VectorColumnKernels";
+
+    /**
+     * Фрагмент колонок; заполнены первые {@code length} элементов
+     */
+    public static final class Chunk {
+
+        public final byte[] currency;
+        public final byte[] nationality;
+        public final int[] birthDays;
+        public final long[] createdAt;
+        public int length;
+
+        public Chunk(int capacity) {
+            this.currency = new byte[capacity];
+            this.nationality = new byte[capacity];
+            this.birthDays = new int[capacity];
+            this.createdAt = new long[capacity];
+        }
+    }
+
+    /**
+     * Условия отбора
+     *
+     * @param currency           код валюты или 0 — любая
+     * @param nationality        код гражданства или 0 — любое
+     * @param minBirthDay        минимальная дата рождения, эпоха-день включительно
+     * @param maxBirthDay        максимальная дата рождения, эпоха-день включительно
+     * @param byCreatedAt        учитывать ли диапазон времени регистрации
+     * @param minCreatedAt       начало диапазона регистрации, мс эпохи включительно
+     * @param maxCreatedAt       конец диапазона регистрации, мс эпохи исключительно
+     * @param birthDayThresholds даты (эпоха-день), для каждой считается число родившихся не позже нее
+     */
+    public record Filter(int currency, int nationality, int minBirthDay, int maxBirthDay,
+                         boolean byCreatedAt, long minCreatedAt, long maxCreatedAt, int[] birthDayThresholds) {}
+
+    /**
+     * Накопленные результаты; индексы распределений — коды значений
+     */
+    public static final class Aggregate {
+
+        public long total;
+        public final long[] byCurrency;
+        public final long[] byNationality;
+        public final long[] bornOnOrBefore;
+
+        public Aggregate(int currencyCodes, int nationalityCodes, int thresholds) {
+            this.byCurrency = new long[currencyCodes];
+            this.byNationality = new long[nationalityCodes];
+            this.bornOnOrBefore = new long[thresholds];
+        }
+    }
+
+    /**
+     * Название реализации (vector или scalar)
+     */
+    public abstract String name();
+
+    /**
+     * Добавить к накопителям строки фрагмента, подходящие под условия
+     */
+    public abstract void aggregate(Chunk chunk, Filter filter, Aggregate aggregate);
+
+    /**
+     * Выбрать реализацию: векторную, если она разрешена и модуль Vector API доступен
+     */
+    public static ColumnKernels create(boolean preferVector) {
+        if (preferVector && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (ColumnKernels) Class.forName(VECTOR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                log.warn("Vector API недоступен ({}), используются скалярные ядра", e.getMessage());
+            }
+        } else if (preferVector) {
+            log.info("Модуль {} не подключен, используются скалярные ядра", VECTOR_MODULE);
+        }
+        return new ScalarColumnKernels();
+    }
+
+    /**
+     * Скалярная обработка строк [from, to) фрагмента; используется и для хвоста векторного цикла
+     */
+    protected static void aggregateScalar(Chunk chunk, int from, int to, Filter filter, Aggregate aggregate) {
+        int[] thresholds = filter.birthDayThresholds();
+        for (int i = from; i < to; i++) {
+            int currency = chunk.currency[i];
+            if (currency == 0 || (filter.currency() != 0 && currency != filter.currency())) {
+                continue;
+            }
+            int nationality = chunk.nationality[i];
+            if (filter.nationality() != 0 && nationality != filter.nationality()) {
+                continue;
+            }
+            int birthDay = chunk.birthDays[i];
+            if (birthDay < filter.minBirthDay() || birthDay > filter.maxBirthDay()) {
+                continue;
+            }
+            if (filter.byCreatedAt()
+                    && (chunk.createdAt[i] < filter.minCreatedAt() || chunk.createdAt[i] >= filter.maxCreatedAt())) {
+                continue;
+            }
+
+            aggregate.total++;
+            aggregate.byCurrency[currency]++;
+            aggregate.byNationality[nationality]++;
+            for (int k = 0; k < thresholds.length; k++) {
+                if (birthDay <= thresholds[k]) {
+                    aggregate.bornOnOrBefore[k]++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.onlinebank.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный Count-Min Sketch для подсчета частот строковых ключей в фиксированной памяти.
+ * <p>
+ * Оценка частоты никогда не меньше истинной и превышает ее не более чем на
+ * {@code e / width} от общего числа добавлений с вероятностью {@code 1 - exp(-depth)}.
+ * Позиции в строках считаются двойным хешированием от {@link MurmurHash3};
+ * счетчики хранятся в {@link AtomicLongArray}, поэтому добавление идет без блокировок.
+ * </p>
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    /**
+     * @param width количество счетчиков в строке
+     * @param depth количество строк (независимых хеш-функций)
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Размеры Count-Min Sketch должны быть больше нуля");
+        }
+        if ((long) width * depth > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Слишком большой Count-Min Sketch: " + width + " x " + depth);
+        }
+        this.counters = new AtomicLongArray(width * depth);
+        this.width = width;
+        this.depth = depth;
+    }
+
+    /**
+     * Учесть одно появление ключа и вернуть новую оценку его частоты; null игнорируется
+     */
+    public long add(String key) {
+        if (key == null) {
+            return 0;
+        }
+        long[] hash = MurmurHash3.hash128(key);
+        long combined = hash[0];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((combined & Long.MAX_VALUE) % width);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+            combined += hash[1];
+        }
+        return estimate;
+    }
+
+    /**
+     * Оценка частоты ключа сверху
+     */
+    public long estimate(String key) {
+        if (key == null) {
+            return 0;
+        }
+        long[] hash = MurmurHash3.hash128(key);
+        long combined = hash[0];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + (int) ((combined & Long.MAX_VALUE) % width);
+            estimate = Math.min(estimate, counters.get(index));
+            combined += hash[1];
+        }
+        return estimate;
+    }
+
+    /**
+     * Количество счетчиков в строке
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Количество строк
+     */
+    public int depth() {
+        return depth;
+    }
+}
@@ -0,0 +1,280 @@
+package com.bank.onlinebank.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Потокобезопасный инвертированный индекс терминов с поиском по расстоянию Левенштейна.
+ * <p>
+ * Термины хранятся в сжатом префиксном дереве (radix trie), у каждого термина — список
+ * ID документов. Нечеткий поиск обходит дерево, протягивая по нему строку динамики
+ * Левенштейна (автомат Левенштейна в явном виде): ветка отсекается, как только минимум
+ * строки превышает допустимое число правок, поэтому просматривается лишь малая часть дерева.
+ * Чтения идут параллельно, запись берет эксклюзивную блокировку.
+ * </p>
+ */
+public class FuzzyIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+
+    private int termCount;
+    private long postingCount;
+
+    /**
+     * Совпадение термина с запросом
+     *
+     * @param term     найденный термин
+     * @param distance расстояние Левенштейна до запроса
+     * @param ids      ID документов, содержащих термин
+     */
+    public record Match(String term, int distance, long[] ids) {}
+
+    /**
+     * Добавить документ к термину
+     */
+    public void add(String term, long id) {
+        if (term == null || term.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node node = insert(term);
+            if (node.postingCount == 0) {
+                termCount++;
+            }
+            if (node.addPosting(id)) {
+                postingCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удалить документ из термина; термин без документов перестает находиться
+     */
+    public void remove(String term, long id) {
+        if (term == null || term.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node node = find(term);
+            if (node != null && node.removePosting(id)) {
+                postingCount--;
+                if (node.postingCount == 0) {
+                    termCount--;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Найти термины на расстоянии не более maxEdits от запроса, ближайшие первыми
+     */
+    public List<Match> search(String query, int maxEdits, int limit) {
+        if (query == null || query.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        int[] firstRow = new int[query.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            StringBuilder path = new StringBuilder();
+            for (Node child : root.children) {
+                collect(child, query, firstRow, maxEdits, path, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort((a, b) -> a.distance() != b.distance() ?
+                Integer.compare(a.distance(), b.distance()) : a.term().compareTo(b.term()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Количество терминов, у которых есть хотя бы один документ
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Общее количество пар (термин, документ)
+     */
+    public long postingCount() {
+        lock.readLock().lock();
+        try {
+            return postingCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Node node, String query, int[] parentRow, int maxEdits,
+                         StringBuilder path, List<Match> matches) {
+        int pathLength = path.length();
+        int[] row = parentRow;
+
+        for (int i = 0; i < node.label.length(); i++) {
+            char ch = node.label.charAt(i);
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int rowMin = next[0];
+            for (int j = 1; j < row.length; j++) {
+                int cost = query.charAt(j - 1) == ch ? 0 : 1;
+                next[j] = Math.min(Math.min(next[j - 1] + 1, row[j] + 1), row[j - 1] + cost);
+                rowMin = Math.min(rowMin, next[j]);
+            }
+            if (rowMin > maxEdits) {
+                return;
+            }
+            row = next;
+        }
+
+        path.append(node.label);
+        int distance = row[row.length - 1];
+        if (node.postingCount > 0 && distance <= maxEdits) {
+            matches.add(new Match(path.toString(), distance, Arrays.copyOf(node.postings, node.postingCount)));
+        }
+        for (Node child : node.children) {
+            collect(child, query, row, maxEdits, path, matches);
+        }
+        path.setLength(pathLength);
+    }
+
+    private Node find(String term) {
+        Node node = root;
+        int pos = 0;
+        while (pos < term.length()) {
+            Node child = node.child(term.charAt(pos));
+            if (child == null || !term.startsWith(child.label, pos)) {
+                return null;
+            }
+            pos += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private Node insert(String term) {
+        Node node = root;
+        int pos = 0;
+        while (pos < term.length()) {
+            Node child = node.child(term.charAt(pos));
+            if (child == null) {
+                Node leaf = new Node(term.substring(pos));
+                node.addChild(leaf);
+                return leaf;
+            }
+
+            int common = commonPrefix(child.label, term, pos);
+            if (common < child.label.length()) {
+                // Разделяем ребро: общий префикс становится промежуточным узлом
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                node.replaceChild(child, middle);
+                middle.addChild(child);
+                child = middle;
+            }
+            pos += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String label, String term, int offset) {
+        int max = Math.min(label.length(), term.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == term.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final long[] NO_POSTINGS = new long[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private long[] postings = NO_POSTINGS;
+        private int postingCount;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            for (Node child : children) {
+                if (child.label.charAt(0) == first) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+        }
+
+        private void replaceChild(Node oldChild, Node newChild) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == oldChild) {
+                    children[i] = newChild;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Документы хранятся по возрастанию ID: загрузка из БД идет по порядку и сводится к добавлению в конец
+         */
+        private boolean addPosting(long id) {
+            int pos = postingCount > 0 && postings[postingCount - 1] < id ?
+                    -(postingCount + 1) : Arrays.binarySearch(postings, 0, postingCount, id);
+            if (pos >= 0) {
+                return false;
+            }
+            int insertAt = -(pos + 1);
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(2, postingCount * 2));
+            }
+            System.arraycopy(postings, insertAt, postings, insertAt + 1, postingCount - insertAt);
+            postings[insertAt] = id;
+            postingCount++;
+            return true;
+        }
+
+        private boolean removePosting(long id) {
+            int pos = Arrays.binarySearch(postings, 0, postingCount, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(postings, pos + 1, postings, pos, postingCount - pos - 1);
+            postingCount--;
+            if (postingCount == 0) {
+                postings = NO_POSTINGS;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.onlinebank.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Потокобезопасный префиксный индекс слов с частотами для автодополнения.
+ * <p>
+ * Слова хранятся в отсортированной карте по нормализованному ключу (нижний регистр,
+ * ё → е), поэтому все продолжения префикса лежат в одном непрерывном диапазоне.
+ * Для ранжирования по частоте диапазон просматривается целиком: подсказка стоит
+ * O(log n + m log k), где m — число слов с этим префиксом (для префиксов из одной-двух
+ * букв это заметная часть индекса), k — лимит подсказок.
+ * </p>
+ */
+public class PrefixIndex {
+
+    private final ConcurrentSkipListMap<String, Entry> entries = new ConcurrentSkipListMap<>();
+
+    /**
+     * Подсказка: слово в исходном написании и количество его вхождений
+     */
+    public record Suggestion(String text, long count) {}
+
+    private record Entry(String display, long count) {}
+
+    /**
+     * Добавить одно вхождение слова
+     */
+    public void add(String word) {
+        add(word, 1);
+    }
+
+    /**
+     * Добавить несколько вхождений слова
+     */
+    public void add(String word, long count) {
+        String key = normalize(word);
+        if (key.isEmpty() || count <= 0) {
+            return;
+        }
+        entries.merge(key, new Entry(word.trim(), count),
+                (existing, added) -> new Entry(existing.display(), existing.count() + added.count()));
+    }
+
+    /**
+     * Удалить одно вхождение слова; слово исчезает из индекса, когда вхождений не остается
+     */
+    public void remove(String word) {
+        String key = normalize(word);
+        if (key.isEmpty()) {
+            return;
+        }
+        entries.computeIfPresent(key, (k, existing) ->
+                existing.count() > 1 ? new Entry(existing.display(), existing.count() - 1) : null);
+    }
+
+    /**
+     * Найти до limit самых частых слов, начинающихся с префикса
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Comparator<Suggestion> byRank = Comparator.comparingLong(Suggestion::count)
+                .thenComparing(Suggestion::text, Comparator.reverseOrder());
+
+        // Min-heap из limit лучших подсказок
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, byRank);
+        for (Map.Entry<String, Entry> entry : entries.subMap(key, key + Character.MAX_VALUE).entrySet()) {
+            top.offer(new Suggestion(entry.getValue().display(), entry.getValue().count()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Suggestion> result = new ArrayList<>(top);
+        result.sort(byRank.reversed());
+        return result;
+    }
+
+    /**
+     * Количество различных слов в индексе
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Нормализация ключа: без пробелов по краям, нижний регистр, ё → е
+     */
+    public static String normalize(String word) {
+        if (word == null) {
+            return "";
+        }
+        return word.trim().toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+}
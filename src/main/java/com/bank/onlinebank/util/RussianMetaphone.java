@@ -0,0 +1,115 @@
+package com.bank.onlinebank.util;
+
+import java.util.Locale;
+
+/**
+ * Фонетический код русских фамилий (вариант Metaphone, адаптированный для русского языка).
+ * <p>
+ * Сжимает типовые окончания фамилий (-ов/-ев, -ин, -ова/-ева, -ский и т.п.) в служебные
+ * символы, сводит гласные к трем классам, оглушает звонкие согласные перед глухими и
+ * в конце слова, удаляет Ь/Ъ и повторы. Одинаково звучащие написания получают один код:
+ * «Соловьев»/«Соловьёв»/«Соловьов», «Кузмин»/«Кузьмин», «Шварц»/«Шворц».
+ * </p>
+ */
+public final class RussianMetaphone {
+
+    /**
+     * Окончания фамилий и их коды; проверяются по порядку, поэтому длинные идут раньше
+     */
+    private static final String[][] ENDINGS = {
+            {"ОВСКИЙ", "@"}, {"ЕВСКИЙ", "#"}, {"ОВСКАЯ", "$"}, {"ЕВСКАЯ", "%"},
+            {"ИЕВА", "9"}, {"ЕЕВА", "9"}, {"ОВА", "9"}, {"ЕВА", "9"},
+            {"ИЕВ", "4"}, {"ЕЕВ", "4"}, {"НКО", "3"}, {"ИНА", "1"},
+            {"ОВ", "4"}, {"ЕВ", "4"}, {"ОФ", "4"}, {"ЕФ", "4"}, {"АЯ", "6"}, {"ИЙ", "7"}, {"ЫЙ", "7"},
+            {"ЫХ", "5"}, {"ИХ", "5"}, {"ИН", "8"}, {"ИК", "2"}, {"ЕК", "2"},
+            {"УК", "0"}, {"ЮК", "0"}
+    };
+
+    private static final String VOICED = "БГВДЖЗ";
+    private static final String VOICELESS = "ПКФТШС";
+
+    private RussianMetaphone() {
+    }
+
+    /**
+     * Фонетический код слова; пустая строка, если в слове нет кириллических букв.
+     * Ь и Ъ отбрасываются сразу, чтобы не мешать оглушению («Лебедь» = «Лебеть»).
+     */
+    public static String encode(String word) {
+        if (word == null) {
+            return "";
+        }
+
+        StringBuilder letters = new StringBuilder(word.length());
+        for (char ch : word.toUpperCase(Locale.ROOT).toCharArray()) {
+            if (ch == 'Ё') {
+                letters.append('Е');
+            } else if (ch >= 'А' && ch <= 'Я' && ch != 'Ь' && ch != 'Ъ') {
+                letters.append(ch);
+            }
+        }
+        if (letters.isEmpty()) {
+            return "";
+        }
+
+        String source = compressEnding(letters.toString());
+        StringBuilder code = new StringBuilder(source.length());
+
+        for (int i = 0; i < source.length(); i++) {
+            char ch = source.charAt(i);
+            char next = i + 1 < source.length() ? source.charAt(i + 1) : 0;
+
+            switch (ch) {
+                case 'Й', 'И' -> {
+                    // ЙО, ИО, ЙЕ, ИЕ → И
+                    if (next == 'О' || next == 'Е') {
+                        i++;
+                    }
+                    ch = 'И';
+                }
+                case 'О', 'Ы', 'Я' -> ch = 'А';
+                case 'Е', 'Э' -> ch = 'И';
+                case 'Ю' -> ch = 'У';
+                case 'Т', 'Д' -> {
+                    // ТС, ДС → Ц
+                    if (next == 'С') {
+                        i++;
+                        ch = 'Ц';
+                    } else if (ch == 'Д' && isDevoicingPosition(next)) {
+                        ch = 'Т';
+                    }
+                }
+                default -> {
+                    int voiced = VOICED.indexOf(ch);
+                    if (voiced >= 0 && isDevoicingPosition(next)) {
+                        ch = VOICELESS.charAt(voiced);
+                    }
+                }
+            }
+
+            if (code.isEmpty() || code.charAt(code.length() - 1) != ch) {
+                code.append(ch);
+            }
+        }
+
+        return code.toString();
+    }
+
+    private static String compressEnding(String word) {
+        for (String[] ending : ENDINGS) {
+            // Окончание сжимается, только если от основы остается хотя бы две буквы
+            if (word.length() > ending[0].length() + 1 && word.endsWith(ending[0])) {
+                return word.substring(0, word.length() - ending[0].length()) + ending[1];
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Звонкая согласная оглушается в конце слова и перед глухой согласной
+     */
+    private static boolean isDevoicingPosition(char next) {
+        return next == 0 || VOICELESS.indexOf(next) >= 0
+                || next == 'Х' || next == 'Ц' || next == 'Ч' || next == 'Щ';
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.onlinebank.util;
+
+/**
+ * Скалярные ядра колоночного снимка: построчный цикл без Vector API
+ */
+public class ScalarColumnKernels extends ColumnKernels {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void aggregate(Chunk chunk, Filter filter, Aggregate aggregate) {
+        aggregateScalar(chunk, 0, chunk.length, filter, aggregate);
+    }
+}
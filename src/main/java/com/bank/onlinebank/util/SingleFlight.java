@@ -0,0 +1,66 @@
+package com.bank.onlinebank.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных вычислений (single flight).
+ * <p>
+ * Первый вызывающий с данным ключом выполняет загрузку, остальные, пришедшие
+ * до ее завершения, ждут и получают тот же результат или то же исключение.
+ * Результат не кэшируется: после завершения следующий вызов снова выполняет загрузку.
+ * </p>
+ *
+ * @param <K> тип ключа (должен корректно реализовывать equals/hashCode)
+ * @param <V> тип результата
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Выполнить загрузку или присоединиться к уже выполняющейся с тем же ключом
+     */
+    public V execute(K key, Supplier<? extends V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Количество выполняющихся сейчас загрузок
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.bank.onlinebank.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Построение ключа поиска по ФИО, не зависящего от алфавита ввода.
+ * <p>
+ * Кириллица транслитерируется в латиницу, после чего к латинской строке применяется
+ * свертка распространенных вариантов записи (kh → h, j → y, x → ks, y → i, удвоенные
+ * буквы и т.п.). Поэтому «Иванов», «Ivanov» и «Iwanow», а также «Дмитрий», «Dmitry»
+ * и «Dmitrii» дают один и тот же ключ.
+ * </p>
+ */
+public final class Transliterator {
+
+    private static final Map<Character, String> CYRILLIC_TO_LATIN = Map.ofEntries(
+            Map.entry('а', "a"), Map.entry('б', "b"), Map.entry('в', "v"), Map.entry('г', "g"),
+            Map.entry('д', "d"), Map.entry('е', "e"), Map.entry('ё', "e"), Map.entry('ж', "zh"),
+            Map.entry('з', "z"), Map.entry('и', "i"), Map.entry('й', "y"), Map.entry('к', "k"),
+            Map.entry('л', "l"), Map.entry('м', "m"), Map.entry('н', "n"), Map.entry('о', "o"),
+            Map.entry('п', "p"), Map.entry('р', "r"), Map.entry('с', "s"), Map.entry('т', "t"),
+            Map.entry('у', "u"), Map.entry('ф', "f"), Map.entry('х', "kh"), Map.entry('ц', "ts"),
+            Map.entry('ч', "ch"), Map.entry('ш', "sh"), Map.entry('щ', "shch"), Map.entry('ъ', ""),
+            Map.entry('ы', "y"), Map.entry('ь', ""), Map.entry('э', "e"), Map.entry('ю', "yu"),
+            Map.entry('я', "ya"));
+
+    /**
+     * Замены для свертки латинских вариантов записи; применяются по порядку
+     */
+    private static final List<Fold> LATIN_FOLDS = List.of(
+            new Fold("shch", "sch"),
+            new Fold("kh", "h"),
+            new Fold("ph", "f"),
+            new Fold("tz", "ts"),
+            new Fold("c(?!h)", "ts"),
+            new Fold("x", "ks"),
+            new Fold("w", "v"),
+            new Fold("q", "k"),
+            new Fold("j", "y"),
+            new Fold("y[eo]", "e"),
+            new Fold("y", "i"),
+            new Fold("([a-z])\\1+", "$1"));
+
+    private record Fold(Pattern pattern, String replacement) {
+        Fold(String regex, String replacement) {
+            this(Pattern.compile(regex), replacement);
+        }
+    }
+
+    private Transliterator() {
+    }
+
+    /**
+     * Ключ поиска для ФИО клиента: свернутые слова через пробел, null-части пропускаются
+     */
+    public static String searchKey(String... parts) {
+        return Stream.of(parts)
+                .filter(Objects::nonNull)
+                .map(Transliterator::fold)
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Свертка произвольного ввода (кириллица, латиница или смешанный) в латинские слова ключа поиска.
+     * Все символы, кроме букв, считаются разделителями слов.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder latin = new StringBuilder(lower.length() + 8);
+        for (int i = 0; i < lower.length(); i++) {
+            char ch = lower.charAt(i);
+            String mapped = CYRILLIC_TO_LATIN.get(ch);
+            if (mapped != null) {
+                latin.append(mapped);
+            } else if (ch >= 'a' && ch <= 'z') {
+                latin.append(ch);
+            } else {
+                latin.append(' ');
+            }
+        }
+
+        return Arrays.stream(latin.toString().split(" +"))
+                .filter(word -> !word.isEmpty())
+                .map(Transliterator::foldLatin)
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String foldLatin(String word) {
+        String result = word;
+        for (Fold fold : LATIN_FOLDS) {
+            result = fold.pattern().matcher(result).replaceAll(fold.replacement());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.onlinebank.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Построение строк запросов PostgreSQL tsquery из пользовательского ввода
+ */
+public final class TsQueryBuilder {
+
+    private TsQueryBuilder() {
+    }
+
+    /**
+     * Построить префиксный запрос: каждое слово ввода становится {@code слово:*},
+     * слова объединяются через {@code &}. Все символы, кроме букв и цифр, отбрасываются,
+     * поэтому результат безопасно передавать в to_tsquery.
+     *
+     * @return строка tsquery или null, если во вводе нет ни одного слова
+     */
+    public static String prefixQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        String query = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+
+        return query.isEmpty() ? null : query;
+    }
+}
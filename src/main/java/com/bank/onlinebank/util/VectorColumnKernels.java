@@ -0,0 +1,97 @@
+package com.bank.onlinebank.util;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Ядра колоночного снимка на Vector API.
+ * <p>
+ * Строки обрабатываются блоками по числу int-лент предпочтительной формы процессора:
+ * байтовые коды расширяются до int, условия отбора и пороги дат рождения считаются
+ * сравнениями векторов с подсчетом {@code trueCount}. Распределение по гражданству
+ * (десятки значений) набирается по битам маски отобранных лент, а не сравнением
+ * с каждым значением. Загружается только класс, выбранный {@link ColumnKernels#create(boolean)},
+ * поэтому без {@code --add-modules jdk.incubator.vector} этот класс не используется.
+ * </p>
+ */
+public class VectorColumnKernels extends ColumnKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.vectorBitSize() / 4));
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final int LONG_PARTS = INTS.length() / LONGS.length();
+
+    public VectorColumnKernels() {
+        if (BYTES.length() != INTS.length() || LONGS.vectorBitSize() != INTS.vectorBitSize()) {
+            throw new IllegalStateException("Неподдерживаемая форма векторов: " + INTS);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + INTS.length() + "x32)";
+    }
+
+    @Override
+    public void aggregate(Chunk chunk, Filter filter, Aggregate aggregate) {
+        int[] thresholds = filter.birthDayThresholds();
+        int currencyCodes = aggregate.byCurrency.length;
+        int bound = INTS.loopBound(chunk.length);
+
+        for (int i = 0; i < bound; i += INTS.length()) {
+            IntVector currency = (IntVector) ByteVector.fromArray(BYTES, chunk.currency, i)
+                    .convertShape(VectorOperators.B2I, INTS, 0);
+            IntVector birthDays = IntVector.fromArray(INTS, chunk.birthDays, i);
+
+            VectorMask<Integer> mask = filter.currency() != 0 ?
+                    currency.eq(filter.currency()) : currency.compare(VectorOperators.NE, 0);
+            if (filter.nationality() != 0) {
+                IntVector nationality = (IntVector) ByteVector.fromArray(BYTES, chunk.nationality, i)
+                        .convertShape(VectorOperators.B2I, INTS, 0);
+                mask = mask.and(nationality.eq(filter.nationality()));
+            }
+            mask = mask.and(birthDays.compare(VectorOperators.GE, filter.minBirthDay()))
+                    .and(birthDays.compare(VectorOperators.LE, filter.maxBirthDay()));
+            if (filter.byCreatedAt()) {
+                mask = mask.and(createdAtMask(chunk.createdAt, i, filter));
+            }
+            if (!mask.anyTrue()) {
+                continue;
+            }
+
+            aggregate.total += mask.trueCount();
+            for (int code = 1; code < currencyCodes; code++) {
+                aggregate.byCurrency[code] += mask.and(currency.eq(code)).trueCount();
+            }
+            for (int k = 0; k < thresholds.length; k++) {
+                aggregate.bornOnOrBefore[k] += mask.and(birthDays.compare(VectorOperators.LE, thresholds[k])).trueCount();
+            }
+            for (long bits = mask.toLong(); bits != 0; bits &= bits - 1) {
+                aggregate.byNationality[chunk.nationality[i + Long.numberOfTrailingZeros(bits)]]++;
+            }
+        }
+
+        aggregateScalar(chunk, bound, chunk.length, filter, aggregate);
+    }
+
+    /**
+     * Маска диапазона времени регистрации: long-лент вдвое меньше, чем int, поэтому блок
+     * собирается из нескольких long-векторов через биты масок
+     */
+    private static VectorMask<Integer> createdAtMask(long[] createdAt, int offset, Filter filter) {
+        long bits = 0;
+        for (int part = 0; part < LONG_PARTS; part++) {
+            LongVector values = LongVector.fromArray(LONGS, createdAt, offset + part * LONGS.length());
+            VectorMask<Long> inRange = values.compare(VectorOperators.GE, filter.minCreatedAt())
+                    .and(values.compare(VectorOperators.LT, filter.maxCreatedAt()));
+            bits |= inRange.toLong() << (part * LONGS.length());
+        }
+        return VectorMask.fromLong(INTS, bits);
+    }
+}
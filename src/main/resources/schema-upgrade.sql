@@ -0,0 +1,98 @@
+-- ===================================================================
+-- ONLINE BANK SCHEMA UPGRADES
+-- Idempotent statements applied on every startup to existing databases
+-- ===================================================================
+
+SET search_path TO onlinebank, public;
+
+-- -------------------------------------------------------------------
+-- Repair of indexes left INVALID by an interrupted CREATE INDEX CONCURRENTLY:
+-- IF NOT EXISTS would skip them forever, so they are dropped and rebuilt below.
+-- Indexes still being built (by another node starting up) are left alone.
+-- -------------------------------------------------------------------
+DO '
+DECLARE
+    broken RECORD;
+BEGIN
+    FOR broken IN
+        SELECT c.relname
+        FROM pg_index x
+        JOIN pg_class c ON c.oid = x.indexrelid
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE n.nspname = current_schema()
+          AND NOT x.indisvalid
+          AND c.relname IN (''idx_clients_last_name_id'', ''idx_clients_birth_date_id'', ''idx_clients_created_at_id'',
+                            ''idx_clients_account_number_rev'', ''idx_clients_phone_number_rev'',
+                            ''idx_clients_search_key'', ''idx_clients_last_name_phonetic'',
+                            ''idx_clients_updated_at'')
+          AND NOT EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = x.indexrelid)
+    LOOP
+        RAISE NOTICE ''Dropping invalid index %'', broken.relname;
+        EXECUTE format(''DROP INDEX %I'', broken.relname);
+    END LOOP;
+END';
+
+-- -------------------------------------------------------------------
+-- Composite indexes for keyset (seek) pagination: sort key + id
+-- (the script runs with autocommit, so indexes are built without locking writes)
+-- -------------------------------------------------------------------
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_last_name_id ON clients(last_name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_birth_date_id ON clients(birth_date, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_created_at_id ON clients(created_at, id);
+
+-- -------------------------------------------------------------------
+-- Reversed-suffix indexes for "last N digits" account / phone lookups
+-- -------------------------------------------------------------------
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_account_number_rev ON clients (reverse(account_number) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_phone_number_rev ON clients (reverse(phone_number) text_pattern_ops);
+
+-- -------------------------------------------------------------------
+-- Transliteration-folded name search key
+-- -------------------------------------------------------------------
+ALTER TABLE clients ADD COLUMN IF NOT EXISTS search_key VARCHAR(320);
+
+-- Filling the derived search columns (startup backfill) must not touch updated_at,
+-- otherwise every existing client looks freshly modified. Single-quoted body keeps
+-- the function in one statement for the ";" splitter.
+CREATE OR REPLACE FUNCTION update_updated_at_column()
+RETURNS TRIGGER AS '
+BEGIN
+    IF (to_jsonb(NEW) - ''search_key'' - ''last_name_phonetic'' - ''updated_at'')
+        IS DISTINCT FROM (to_jsonb(OLD) - ''search_key'' - ''last_name_phonetic'' - ''updated_at'') THEN
+        NEW.updated_at = CURRENT_TIMESTAMP;
+    END IF;
+    RETURN NEW;
+END;
+' LANGUAGE plpgsql;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_search_key ON clients
+    USING gin(to_tsvector('simple', COALESCE(search_key, '')));
+
+-- -------------------------------------------------------------------
+-- Phonetic code of the last name
+-- -------------------------------------------------------------------
+ALTER TABLE clients ADD COLUMN IF NOT EXISTS last_name_phonetic VARCHAR(100);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_last_name_phonetic ON clients(last_name_phonetic, last_name, id);
+
+-- -------------------------------------------------------------------
+-- Daily client registration rollup (maintained by ClientGrowthService)
+-- -------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS client_growth_daily (
+    day DATE NOT NULL,
+    currency VARCHAR(10) NOT NULL,
+    nationality VARCHAR(50) NOT NULL,
+    registrations BIGINT NOT NULL,
+    CONSTRAINT client_growth_daily_pk PRIMARY KEY (day, currency, nationality)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermarks (
+    name VARCHAR(50) PRIMARY KEY,
+    closed_through DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- -------------------------------------------------------------------
+-- Incremental refresh of the columnar client snapshot
+-- -------------------------------------------------------------------
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_updated_at ON clients(updated_at);
@@ -30,6 +30,8 @@ CREATE TABLE IF NOT EXISTS clients (
     currency VARCHAR(10) NOT NULL,
     nationality VARCHAR(50) NOT NULL,
     phone_number VARCHAR(50) NOT NULL UNIQUE,
+    search_key VARCHAR(320),
+    last_name_phonetic VARCHAR(100),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     version BIGINT DEFAULT 0,
@@ -51,18 +53,39 @@ CREATE INDEX IF NOT EXISTS idx_clients_currency ON clients(currency);
 CREATE INDEX IF NOT EXISTS idx_clients_nationality ON clients(nationality);
 CREATE INDEX IF NOT EXISTS idx_clients_birth_date ON clients(birth_date);
 CREATE INDEX IF NOT EXISTS idx_clients_created_at ON clients(created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_clients_updated_at ON clients(updated_at);
+
+-- Composite indexes for keyset (seek) pagination: sort key + id
+CREATE INDEX IF NOT EXISTS idx_clients_last_name_id ON clients(last_name, id);
+CREATE INDEX IF NOT EXISTS idx_clients_birth_date_id ON clients(birth_date, id);
+CREATE INDEX IF NOT EXISTS idx_clients_created_at_id ON clients(created_at, id);
+
+-- Reversed-suffix indexes for "last N digits" account / phone lookups
+CREATE INDEX IF NOT EXISTS idx_clients_account_number_rev ON clients (reverse(account_number) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_clients_phone_number_rev ON clients (reverse(phone_number) text_pattern_ops);
 
 -- Full text search index for name search
 CREATE INDEX IF NOT EXISTS idx_clients_full_name ON clients
     USING gin(to_tsvector('russian', last_name || ' ' || first_name || ' ' || COALESCE(middle_name, '')));
 
+-- Transliteration-folded name key (Latin / Cyrillic input), prefix search via tsquery
+CREATE INDEX IF NOT EXISTS idx_clients_search_key ON clients
+    USING gin(to_tsvector('simple', COALESCE(search_key, '')));
+
+-- Phonetic code of the last name (sound-alike lookups by equality)
+CREATE INDEX IF NOT EXISTS idx_clients_last_name_phonetic ON clients(last_name_phonetic, last_name, id);
+
 -- -------------------------------------------------------------------
 -- Create trigger for updated_at timestamp
+-- (updates that only fill the derived search columns keep the timestamp)
 -- -------------------------------------------------------------------
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.updated_at = CURRENT_TIMESTAMP;
+    IF (to_jsonb(NEW) - 'search_key' - 'last_name_phonetic' - 'updated_at')
+        IS DISTINCT FROM (to_jsonb(OLD) - 'search_key' - 'last_name_phonetic' - 'updated_at') THEN
+        NEW.updated_at = CURRENT_TIMESTAMP;
+    END IF;
     RETURN NEW;
 END;
 $$ language 'plpgsql';
@@ -73,6 +96,23 @@ CREATE TRIGGER update_clients_updated_at
     FOR EACH ROW
     EXECUTE FUNCTION update_updated_at_column();
 
+-- -------------------------------------------------------------------
+-- Daily client registration rollup (maintained by ClientGrowthService)
+-- -------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS client_growth_daily (
+    day DATE NOT NULL,
+    currency VARCHAR(10) NOT NULL,
+    nationality VARCHAR(50) NOT NULL,
+    registrations BIGINT NOT NULL,
+    CONSTRAINT client_growth_daily_pk PRIMARY KEY (day, currency, nationality)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermarks (
+    name VARCHAR(50) PRIMARY KEY,
+    closed_through DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- -------------------------------------------------------------------
 -- Create Spring Session tables (if using JDBC session)
 -- -------------------------------------------------------------------
@@ -211,20 +211,59 @@ function debounce(func, wait) {
     };
 }
 
-// Live search functionality
+// Search autocomplete: suggestions come from /api/clients/suggest
 const searchInput = document.querySelector('input[name="search"]');
 if (searchInput) {
-    const debouncedSearch = debounce((value) => {
-        if (value.length >= 3 || value.length === 0) {
+    const datalist = document.createElement('datalist');
+    datalist.id = 'search-suggestions';
+    searchInput.insertAdjacentElement('afterend', datalist);
+    searchInput.setAttribute('list', datalist.id);
+    searchInput.setAttribute('autocomplete', 'off');
+
+    let lastQuery = '';
+
+    const loadSuggestions = debounce(async (value) => {
+        const query = value.trim();
+        if (query === lastQuery) {
+            return;
+        }
+        lastQuery = query;
+
+        if (query.length === 0) {
+            datalist.replaceChildren();
+            return;
+        }
+
+        try {
+            const response = await fetch(`/api/clients/suggest?q=${encodeURIComponent(query)}&limit=10`);
+            if (!response.ok) {
+                return;
+            }
+            const suggestions = await response.json();
+            if (query !== lastQuery) {
+                return; // пришел ответ на устаревший запрос
+            }
+            datalist.replaceChildren(...suggestions.map(suggestion => {
+                const option = document.createElement('option');
+                option.value = suggestion.text;
+                return option;
+            }));
+        } catch (error) {
+            console.error('Error loading suggestions:', error);
+        }
+    }, 150);
+
+    searchInput.addEventListener('input', (e) => {
+        const value = e.target.value;
+        const selected = Array.from(datalist.options).some(option => option.value === value);
+        if (selected) {
             const form = searchInput.closest('form');
             if (form) {
                 form.submit();
             }
+            return;
         }
-    }, 500);
-
-    searchInput.addEventListener('input', (e) => {
-        debouncedSearch(e.target.value);
+        loadSuggestions(value);
     });
 }
 
@@ -0,0 +1,105 @@
+package com.bank.onlinebank;
+
+import com.bank.onlinebank.dto.ClientRow;
+import com.bank.onlinebank.entity.Client;
+import com.bank.onlinebank.repository.ClientRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение чтения страницы клиентов через сущности и через проекцию {@link ClientRow}.
+ * <p>
+ * Требует доступной БД с данными, поэтому исключен из обычного набора тестов
+ * и запускается профилем: {@code mvn test -Pbenchmark}.
+ * Пишет в лог среднее время и объем выделенной памяти на страницу для обоих вариантов.
+ * </p>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ClientProjectionBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientProjectionBenchmarkTests.class);
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void entityVersusProjectionPage() {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("lastName"));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<Integer> entities = () -> readOnly.execute(status -> {
+            Page<Client> page = clientRepository.findAll(pageable);
+            int checksum = 0;
+            for (Client client : page) {
+                checksum += client.getFullName().length() + client.getAge();
+            }
+            return checksum;
+        });
+        Supplier<Integer> rows = () -> readOnly.execute(status -> {
+            Page<ClientRow> page = clientRepository.findAllRows(pageable);
+            int checksum = 0;
+            for (ClientRow row : page) {
+                checksum += Client.fullName(row.lastName(), row.firstName(), row.middleName()).length()
+                        + Client.age(row.birthDate());
+            }
+            return checksum;
+        });
+
+        assertEquals(entities.get(), rows.get(), "Оба варианта должны читать одни и те же данные");
+
+        Result entityResult = measure(entities);
+        Result rowResult = measure(rows);
+
+        log.info("Страница из {} клиентов, {} итераций", PAGE_SIZE, MEASURED_ITERATIONS);
+        log.info("  сущности: {} мкс, {} байт на страницу",
+                String.format("%.1f", entityResult.micros()), entityResult.bytes());
+        log.info("  проекция: {} мкс, {} байт на страницу",
+                String.format("%.1f", rowResult.micros()), rowResult.bytes());
+    }
+
+    private static Result measure(Supplier<Integer> task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.get();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            task.get();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(elapsed / 1000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private record Result(double micros, long bytes) {}
+}
@@ -0,0 +1,93 @@
+package com.bank.onlinebank.service;
+
+import com.bank.onlinebank.enums.Currency;
+import com.bank.onlinebank.enums.Nationality;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выборка по диапазону дат рождения: границы включительно внутри года и через
+ * границу лет, 29 февраля в високосных и невисокосных годах.
+ */
+class ClientBitmapIndexTests {
+
+    private ClientBitmapIndex.Bitmaps bitmaps;
+
+    @BeforeEach
+    void setUp() {
+        bitmaps = new ClientBitmapIndex.Bitmaps();
+        add(1, "1999-12-31");
+        add(2, "2000-01-01");
+        add(3, "2000-02-28");
+        add(4, "2000-02-29");
+        add(5, "2000-03-01");
+        add(6, "2000-12-31");
+        add(7, "2001-02-28");
+        add(8, "2001-03-01");
+        add(9, "2003-06-15");
+        add(10, "2004-02-29");
+    }
+
+    @Test
+    void boundariesWithinOneYearAreInclusive() {
+        assertRange("2000-02-28", "2000-03-01", 3, 4, 5);
+        assertRange("2000-01-02", "2000-12-30", 3, 4, 5);
+        assertRange("2000-03-01", "2000-03-01", 5);
+    }
+
+    @Test
+    void february29IsItsOwnDay() {
+        assertRange("2000-02-29", "2000-02-29", 4);
+        assertRange("2000-02-28", "2000-02-28", 3);
+        assertRange("2004-02-01", "2004-02-29", 10);
+    }
+
+    @Test
+    void nonLeapYearRangeAroundFebruaryEnd() {
+        assertRange("2001-02-28", "2001-03-01", 7, 8);
+        assertRange("2001-03-01", "2001-12-31", 8);
+    }
+
+    @Test
+    void rangeAcrossYearBoundary() {
+        assertRange("1999-12-31", "2000-01-01", 1, 2);
+        assertRange("2000-12-31", "2001-02-28", 6, 7);
+        assertRange("2000-02-29", "2001-02-28", 4, 5, 6, 7);
+    }
+
+    @Test
+    void rangeAcrossSeveralYearsIncludesInnerYearsWhole() {
+        assertRange("2000-03-01", "2004-02-28", 5, 6, 7, 8, 9);
+        assertRange("1999-12-31", "2004-02-29", 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+    }
+
+    @Test
+    void openBounds() {
+        assertRange(null, "2000-01-01", 1, 2);
+        assertRange("2004-02-29", null, 10);
+        assertRange("2005-01-01", null);
+    }
+
+    @Test
+    void reversedRangeIsEmpty() {
+        assertTrue(ClientBitmapIndex.birthRange(bitmaps,
+                LocalDate.parse("2001-01-01"), LocalDate.parse("2000-01-01")).isEmpty());
+    }
+
+    private void add(int id, String birthDate) {
+        bitmaps.add(id, Currency.values()[0], Nationality.values()[0], LocalDate.parse(birthDate));
+    }
+
+    private void assertRange(String from, String to, int... expectedIds) {
+        RoaringBitmap ids = ClientBitmapIndex.birthRange(bitmaps,
+                from != null ? LocalDate.parse(from) : null, to != null ? LocalDate.parse(to) : null);
+
+        assertArrayEquals(expectedIds, ids.toArray(), from + " .. " + to);
+    }
+}
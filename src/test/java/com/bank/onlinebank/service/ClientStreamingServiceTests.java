@@ -0,0 +1,87 @@
+package com.bank.onlinebank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Потоковая выдача клиентов: ответ должен быть полным JSON при успехе
+ * и синтаксически неполным при ошибке чтения в середине выдачи.
+ */
+class ClientStreamingServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResultSet resultSet;
+    private ClientStreamingService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.getString("last_name")).thenReturn("Иванов");
+        when(resultSet.getString("first_name")).thenReturn("Иван");
+        when(resultSet.getObject("birth_date", LocalDate.class)).thenReturn(LocalDate.of(1990, 5, 17));
+
+        service = new ClientStreamingService(dataSource, objectMapper);
+        ReflectionTestUtils.setField(service, "fetchSize", 100);
+        ReflectionTestUtils.setField(service, "flushRows", 1000);
+        service.init();
+    }
+
+    @Test
+    void writesCompleteEnvelope() throws Exception {
+        when(resultSet.next()).thenReturn(true, true, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = service.writeClients(0, 20, "lastName", Sort.Direction.ASC, out);
+
+        assertEquals(2, written);
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, body.get("items").size());
+        assertFalse(body.get("hasNext").asBoolean());
+    }
+
+    @Test
+    void leavesJsonUnterminatedWhenReadFailsMidStream() throws Exception {
+        when(resultSet.next())
+                .thenReturn(true)
+                .thenThrow(new SQLException("Соединение с БД потеряно"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(DataAccessException.class,
+                () -> service.writeClients(0, 20, "lastName", Sort.Direction.ASC, out));
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("{\"items\":[{"), body);
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(body),
+                "Оборванный ответ не должен быть корректным JSON");
+    }
+}
@@ -0,0 +1,95 @@
+package com.bank.onlinebank.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Фильтр Блума: размер по n и p, отсутствие ложноотрицательных ответов
+ * и доля ложных срабатываний около заданной.
+ */
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 10_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void sizesFromExpectedInsertionsAndRate() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        // m = -n·ln p / ln²2 = 9586 бит, округление вверх до 64-битных слов; k = m/n·ln 2
+        assertEquals(9600, filter.bitSize());
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void lowerRateNeedsMoreBitsAndHashes() {
+        BloomFilter loose = new BloomFilter(INSERTIONS, 0.05);
+        BloomFilter strict = new BloomFilter(INSERTIONS, 0.001);
+
+        assertTrue(strict.bitSize() > loose.bitSize());
+        assertTrue(strict.hashCount() > loose.hashCount());
+    }
+
+    @Test
+    void tinyFilterStillHasOneWordAndOneHash() {
+        BloomFilter filter = new BloomFilter(1, 0.9);
+
+        assertEquals(64, filter.bitSize());
+        assertTrue(filter.hashCount() >= 1);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(accountNumber(i));
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain(accountNumber(i)), accountNumber(i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsNearTarget() {
+        double target = 0.01;
+        BloomFilter filter = new BloomFilter(INSERTIONS, target);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put(accountNumber(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = INSERTIONS; i < INSERTIONS + PROBES; i++) {
+            if (filter.mightContain(accountNumber(i))) {
+                falsePositives++;
+            }
+        }
+
+        double observed = (double) falsePositives / PROBES;
+        assertTrue(observed > target / 2 && observed < target * 1.5,
+                "Доля ложных срабатываний " + observed + " далека от " + target);
+    }
+
+    @Test
+    void nullIsNeverContained() {
+        BloomFilter filter = new BloomFilter(10, 0.01);
+        filter.put(null);
+
+        assertFalse(filter.mightContain(null));
+    }
+
+    private static String accountNumber(int i) {
+        return String.format("40817810%012d", i);
+    }
+}
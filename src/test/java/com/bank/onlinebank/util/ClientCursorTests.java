@@ -0,0 +1,95 @@
+package com.bank.onlinebank.util;
+
+import com.bank.onlinebank.dto.ClientDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Курсор keyset-пагинации: кодирование без потерь и отказ для поврежденных
+ * или выданных для другой сортировки токенов.
+ */
+class ClientCursorTests {
+
+    private final ClientDTO client = ClientDTO.builder()
+            .id(42L)
+            .lastName("Иванов|Петров")
+            .birthDate(LocalDate.of(1990, 2, 28))
+            .createdAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000))
+            .build();
+
+    @Test
+    void roundTripsEverySortField() {
+        for (ClientCursor.SortField field : ClientCursor.SortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                ClientCursor cursor = ClientCursor.after(client, field, direction);
+
+                ClientCursor decoded = ClientCursor.decode(cursor.encode());
+
+                assertEquals(cursor, decoded, field + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = ClientCursor.after(client, ClientCursor.SortField.LAST_NAME, Sort.Direction.ASC).encode();
+
+        assertFalse(token.matches(".*[+/=].*"), token);
+    }
+
+    @Test
+    void acceptsMatchingOrUnspecifiedSort() {
+        String token = ClientCursor.after(client, ClientCursor.SortField.BIRTH_DATE, Sort.Direction.DESC).encode();
+
+        assertEquals(ClientCursor.SortField.BIRTH_DATE,
+                ClientCursor.decode(token, ClientCursor.SortField.BIRTH_DATE, Sort.Direction.DESC).sortField());
+        assertEquals(Sort.Direction.DESC, ClientCursor.decode(token, null, null).direction());
+    }
+
+    @Test
+    void rejectsCursorForAnotherSortField() {
+        String token = ClientCursor.after(client, ClientCursor.SortField.BIRTH_DATE, Sort.Direction.ASC).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ClientCursor.decode(token, ClientCursor.SortField.LAST_NAME, null));
+    }
+
+    @Test
+    void rejectsCursorForAnotherDirection() {
+        String token = ClientCursor.after(client, ClientCursor.SortField.ID, Sort.Direction.ASC).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ClientCursor.decode(token, ClientCursor.SortField.ID, Sort.Direction.DESC));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String[] tokens = {
+                "не base64!",
+                encode("LAST_NAME|ASC|42"),
+                encode("PHONE|ASC|42|123"),
+                encode("LAST_NAME|SIDEWAYS|42|Иванов"),
+                encode("LAST_NAME|ASC|сорок два|Иванов"),
+                encode("BIRTH_DATE|ASC|42|1990-02-30"),
+                encode("CREATED_AT|ASC|42|вчера"),
+                encode("ID|ASC|42|1; DROP TABLE clients")
+        };
+
+        for (String token : tokens) {
+            assertThrows(IllegalArgumentException.class, () -> ClientCursor.decode(token), token);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
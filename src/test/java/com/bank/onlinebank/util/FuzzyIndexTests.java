@@ -0,0 +1,109 @@
+package com.bank.onlinebank.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Radix trie со строкой динамики Левенштейна: расстояния 0/1/2, разделение ребер,
+ * удаление документов и ограничение числа найденных терминов.
+ */
+class FuzzyIndexTests {
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.add("иванов", 1);
+        index.add("иванова", 2);
+        index.add("ивашов", 3);
+        index.add("петров", 4);
+        index.add("иван", 5);
+    }
+
+    @Test
+    void exactMatchHasDistanceZero() {
+        List<FuzzyIndex.Match> matches = index.search("иванов", 0, 10);
+
+        assertEquals(1, matches.size());
+        assertEquals("иванов", matches.get(0).term());
+        assertEquals(0, matches.get(0).distance());
+        assertArrayEquals(new long[]{1}, matches.get(0).ids());
+    }
+
+    @Test
+    void oneEditFindsInsertionDeletionAndSubstitution() {
+        assertEquals(List.of("иванов", "иванова", "ивашов"), terms(index.search("иванов", 1, 10)));
+        assertEquals(List.of("иванов"), terms(index.search("ивнов", 1, 10)));
+        assertEquals(List.of("иванов"), terms(index.search("иваннов", 1, 10)));
+    }
+
+    @Test
+    void twoEditsWidenTheMatchAndRankByDistance() {
+        List<FuzzyIndex.Match> matches = index.search("иванов", 2, 10);
+
+        assertEquals(List.of("иванов", "иванова", "ивашов", "иван"), terms(matches));
+        assertEquals(List.of(0, 1, 1, 2), matches.stream().map(FuzzyIndex.Match::distance).toList());
+    }
+
+    @Test
+    void prefixOfLongerTermIsIndexedSeparately() {
+        // "иван" лежит на разделенном ребре "иван" → "ов"/"ова"
+        assertEquals(List.of("иван"), terms(index.search("иван", 0, 10)));
+        assertEquals(List.of("иванов"), terms(index.search("иванов", 0, 10)));
+    }
+
+    @Test
+    void removedTermIsNoLongerFound() {
+        index.remove("иванов", 1);
+
+        assertTrue(index.search("иванов", 0, 10).isEmpty());
+        assertEquals(List.of("иванова"), terms(index.search("иванова", 0, 10)));
+        assertEquals(4, index.termCount());
+        assertEquals(4, index.postingCount());
+    }
+
+    @Test
+    void removingOneDocumentKeepsTheOthers() {
+        index.add("иванов", 7);
+        index.add("иванов", 6);
+
+        index.remove("иванов", 1);
+        index.remove("иванов", 99);
+
+        assertArrayEquals(new long[]{6, 7}, index.search("иванов", 0, 10).get(0).ids());
+        assertEquals(5, index.termCount());
+    }
+
+    @Test
+    void duplicatePostingIsCountedOnce() {
+        index.add("петров", 4);
+
+        assertEquals(5, index.termCount());
+        assertEquals(5, index.postingCount());
+    }
+
+    @Test
+    void limitKeepsClosestTerms() {
+        List<FuzzyIndex.Match> matches = index.search("иванов", 2, 2);
+
+        assertEquals(List.of("иванов", "иванова"), terms(matches));
+    }
+
+    @Test
+    void emptyQueryOrLimitFindsNothing() {
+        assertTrue(index.search("", 2, 10).isEmpty());
+        assertTrue(index.search(null, 2, 10).isEmpty());
+        assertTrue(index.search("иванов", 2, 0).isEmpty());
+    }
+
+    private static List<String> terms(List<FuzzyIndex.Match> matches) {
+        return matches.stream().map(FuzzyIndex.Match::term).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.bank.onlinebank.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Префиксный индекс: ранжирование подсказок по частоте и удаление вхождений.
+ */
+class PrefixIndexTests {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex();
+        index.add("Иванов", 5);
+        index.add("Иваненко", 2);
+        index.add("Ивашов", 2);
+        index.add("Игнатьев", 9);
+        index.add("Петров", 7);
+    }
+
+    @Test
+    void ranksByFrequencyThenAlphabetically() {
+        List<PrefixIndex.Suggestion> suggestions = index.suggest("ив", 10);
+
+        assertEquals(List.of("Иванов", "Иваненко", "Ивашов"), texts(suggestions));
+        assertEquals(List.of(5L, 2L, 2L), suggestions.stream().map(PrefixIndex.Suggestion::count).toList());
+    }
+
+    @Test
+    void limitKeepsMostFrequent() {
+        assertEquals(List.of("Игнатьев", "Иванов"), texts(index.suggest("и", 2)));
+    }
+
+    @Test
+    void prefixIsNormalized() {
+        index.add("Семёнов", 3);
+
+        assertEquals(List.of("Семёнов"), texts(index.suggest(" СЕМЕ", 5)));
+        assertEquals(List.of("Семёнов"), texts(index.suggest("семё", 5)));
+    }
+
+    @Test
+    void spellingVariantsShareOneEntry() {
+        index.add("Семёнов");
+        index.add("Семенов");
+
+        List<PrefixIndex.Suggestion> suggestions = index.suggest("сем", 5);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(new PrefixIndex.Suggestion("Семёнов", 2), suggestions.get(0));
+    }
+
+    @Test
+    void removeLowersRankUntilWordDisappears() {
+        for (int i = 0; i < 4; i++) {
+            index.remove("Иванов");
+        }
+        assertEquals(List.of("Иваненко", "Ивашов", "Иванов"), texts(index.suggest("ив", 10)));
+
+        index.remove("иванов");
+
+        assertEquals(List.of("Иваненко", "Ивашов"), texts(index.suggest("ив", 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void removingUnknownWordIsNoOp() {
+        index.remove("Сидоров");
+        index.remove("");
+        index.remove(null);
+
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void emptyPrefixOrLimitSuggestsNothing() {
+        assertTrue(index.suggest("", 10).isEmpty());
+        assertTrue(index.suggest(null, 10).isEmpty());
+        assertTrue(index.suggest("ив", 0).isEmpty());
+        assertTrue(index.suggest("сидоров", 10).isEmpty());
+    }
+
+    private static List<String> texts(List<PrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(PrefixIndex.Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.onlinebank.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Фонетический код фамилий: одинаково звучащие написания получают один код,
+ * служебные и некириллические символы не влияют на результат.
+ */
+class RussianMetaphoneTests {
+
+    @Test
+    void softSignAndYoDoNotMatter() {
+        assertSameCode("Соловьев", "Соловьёв", "Соловьов");
+        assertSameCode("Кузмин", "Кузьмин");
+        assertSameCode("Подъячев", "Подячев");
+    }
+
+    @Test
+    void vowelsAreReducedToClasses() {
+        assertSameCode("Шварц", "Шворц");
+        assertSameCode("Майоров", "Маеров");
+    }
+
+    @Test
+    void voicedConsonantsAreDevoicedAtEndAndBeforeVoiceless() {
+        assertSameCode("Лебедь", "Лебеть");
+        assertSameCode("Зуб", "Зуп");
+        assertSameCode("Ложкин", "Лошкин");
+    }
+
+    @Test
+    void tsAndDsSoundAsTse() {
+        assertSameCode("Готсман", "Гоцман", "Годсман");
+    }
+
+    @Test
+    void doubledLettersCollapse() {
+        assertSameCode("Филиппов", "Филипов");
+        assertSameCode("Аннушкин", "Анушкин");
+    }
+
+    @Test
+    void masculineAndFeminineEndingsDiffer() {
+        assertNotEquals(RussianMetaphone.encode("Иванов"), RussianMetaphone.encode("Иванова"));
+        assertNotEquals(RussianMetaphone.encode("Чайковский"), RussianMetaphone.encode("Чайковская"));
+    }
+
+    @Test
+    void endingIsKeptWhenStemWouldBeTooShort() {
+        assertEquals("ЛИФ", RussianMetaphone.encode("Лев"));
+    }
+
+    @Test
+    void caseAndNonLettersAreIgnored() {
+        assertSameCode("Иванов", "ИВАНОВ", "иванов", " Иванов ", "Иванов1");
+        assertSameCode("Петров-Водкин", "ПетровВодкин");
+    }
+
+    @Test
+    void wordsWithoutCyrillicEncodeToEmpty() {
+        assertEquals("", RussianMetaphone.encode(null));
+        assertEquals("", RussianMetaphone.encode(""));
+        assertEquals("", RussianMetaphone.encode("Smith"));
+        assertEquals("", RussianMetaphone.encode("ЬЪ"));
+        assertEquals("", RussianMetaphone.encode("12-34"));
+    }
+
+    private static void assertSameCode(String expected, String... variants) {
+        String code = RussianMetaphone.encode(expected);
+        for (String variant : variants) {
+            assertEquals(code, RussianMetaphone.encode(variant), expected + " / " + variant);
+        }
+    }
+}